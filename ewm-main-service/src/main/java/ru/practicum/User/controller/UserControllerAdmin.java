@@ -1,5 +1,7 @@
 package ru.practicum.User.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -18,7 +20,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.User.dto.UserDtoInput;
 import ru.practicum.User.dto.UserDtoOutput;
 import ru.practicum.User.service.UserService;
+import ru.practicum.export.ExportFormat;
 
+import java.io.IOException;
 import java.util.List;
 
 @Validated
@@ -45,6 +49,15 @@ public class UserControllerAdmin {
         return userService.createUser(userDtoInput);
     }
 
+    @PostMapping("/import")
+    public void importUsers(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(ExportFormat.NDJSON.getMediaType());
+        response.setCharacterEncoding("UTF-8");
+        userService.importUsers(format, request.getInputStream(), response.getOutputStream());
+    }
+
     @DeleteMapping("/{userId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteUser(@PathVariable Long userId) {
@@ -0,0 +1,7 @@
+package ru.practicum.User.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserImportResult(long line, UserImportStatus status, Long id, String message) {
+}
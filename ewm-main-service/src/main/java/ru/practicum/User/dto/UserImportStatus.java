@@ -0,0 +1,7 @@
+package ru.practicum.User.dto;
+
+public enum UserImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID
+}
@@ -1,14 +1,26 @@
 package ru.practicum.User.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.User.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    List<User> findByIdInOrderByIdAsc(List<Long> ids, PageRequest pageRequest);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")})
+    long countByIdIn(Collection<Long> ids);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")})
     List<User> findByIdIn(List<Long> userIds,
                           PageRequest pageRequest);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findEmailsByEmailIn(Collection<String> emails);
 }
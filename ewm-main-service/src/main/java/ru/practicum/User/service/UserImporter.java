@@ -0,0 +1,173 @@
+package ru.practicum.User.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.User.dto.UserDtoInput;
+import ru.practicum.User.dto.UserImportResult;
+import ru.practicum.User.dto.UserImportStatus;
+import ru.practicum.User.mapper.UserMapper;
+import ru.practicum.User.model.User;
+import ru.practicum.User.repository.UserRepository;
+import ru.practicum.exception.UniqueViolations;
+import ru.practicum.export.ExportFormat;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт пользователей из NDJSON или CSV. Строки обрабатываются пакетами фиксированного размера,
+ * результат по каждой строке сразу пишется в ответ.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserImporter {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final String CSV_HEADER = "name,email";
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    public void importUsers(ExportFormat format, InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<ImportLine> chunk = new ArrayList<>(CHUNK_SIZE);
+        long number = 0;
+        long created = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            number++;
+            if (text.isBlank() || (format == ExportFormat.CSV && number == 1
+                    && text.trim().equalsIgnoreCase(CSV_HEADER))) {
+                continue;
+            }
+            chunk.add(parse(format, number, text));
+            if (chunk.size() == CHUNK_SIZE) {
+                created += write(writer, save(chunk, transaction));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += write(writer, save(chunk, transaction));
+        }
+        log.info("Импорт пользователей завершен, обработано строк: {}, добавлено пользователей: {}.", number, created);
+    }
+
+    private ImportLine parse(ExportFormat format, long number, String text) {
+        UserDtoInput user;
+        try {
+            user = format == ExportFormat.CSV ? fromCsv(text) : objectMapper.readValue(text, UserDtoInput.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return new ImportLine(number, null, "Не удалось разобрать строку.");
+        }
+        Set<ConstraintViolation<UserDtoInput>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            return new ImportLine(number, null, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return new ImportLine(number, user, null);
+    }
+
+    private static UserDtoInput fromCsv(String text) {
+        int separator = text.lastIndexOf(',');
+        if (separator < 0) {
+            throw new IllegalArgumentException(text);
+        }
+        String name = text.substring(0, separator).trim();
+        if (name.length() > 1 && name.startsWith("\"") && name.endsWith("\"")) {
+            name = name.substring(1, name.length() - 1).replace("\"\"", "\"");
+        }
+        UserDtoInput user = new UserDtoInput();
+        user.setName(name);
+        user.setEmail(text.substring(separator + 1).trim());
+        return user;
+    }
+
+    private List<UserImportResult> save(List<ImportLine> lines, TransactionTemplate transaction) {
+        try {
+            return transaction.execute(status -> saveChunk(lines));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Пакет пользователей не сохранен, повторное сохранение по одной строке: {}", e.getMessage());
+        }
+        List<UserImportResult> results = new ArrayList<>(lines.size());
+        for (ImportLine line : lines) {
+            try {
+                results.addAll(transaction.execute(status -> saveChunk(List.of(line))));
+            } catch (DataIntegrityViolationException e) {
+                if (!UniqueViolations.isViolated(e, User.EMAIL_UNIQUE)) {
+                    throw e;
+                }
+                results.add(new UserImportResult(line.number(), UserImportStatus.DUPLICATE, null,
+                        "Этот пользователь уже существует."));
+            }
+        }
+        return results;
+    }
+
+    private List<UserImportResult> saveChunk(List<ImportLine> lines) {
+        Set<String> emails = new HashSet<>(userRepository.findEmailsByEmailIn(lines.stream()
+                .filter(line -> line.user() != null)
+                .map(line -> line.user().getEmail())
+                .toList()));
+        List<UserImportResult> results = new ArrayList<>(lines.size());
+        for (ImportLine line : lines) {
+            if (line.user() == null) {
+                results.add(new UserImportResult(line.number(), UserImportStatus.INVALID, null, line.error()));
+            } else if (!emails.add(line.user().getEmail())) {
+                results.add(new UserImportResult(line.number(), UserImportStatus.DUPLICATE, null,
+                        "Этот пользователь уже существует."));
+            } else {
+                User user = userRepository.save(userMapper.toUser(line.user()));
+                results.add(new UserImportResult(line.number(), UserImportStatus.CREATED, user.getId(), null));
+            }
+        }
+        userRepository.flush();
+        entityManager.clear();
+        return results;
+    }
+
+    private long write(Writer writer, List<UserImportResult> results) throws IOException {
+        long created = 0;
+        for (UserImportResult result : results) {
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.write('\n');
+            if (result.status() == UserImportStatus.CREATED) {
+                created++;
+            }
+        }
+        writer.flush();
+        return created;
+    }
+
+    private record ImportLine(long number, UserDtoInput user, String error) {
+    }
+}
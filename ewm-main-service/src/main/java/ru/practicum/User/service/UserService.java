@@ -3,6 +3,11 @@ package ru.practicum.User.service;
 import ru.practicum.User.dto.UserDtoInput;
 import ru.practicum.User.dto.UserDtoOutput;
 
+import ru.practicum.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserService {
@@ -10,5 +15,7 @@ public interface UserService {
 
     UserDtoOutput createUser(UserDtoInput userDtoInput);
 
+    void importUsers(ExportFormat format, InputStream in, OutputStream out) throws IOException;
+
     void deleteUser(Long userId);
 }
@@ -2,8 +2,10 @@ package ru.practicum.User.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.User.dto.UserDtoInput;
 import ru.practicum.User.dto.UserDtoOutput;
@@ -11,7 +13,12 @@ import ru.practicum.User.mapper.UserMapper;
 import ru.practicum.User.model.User;
 import ru.practicum.User.repository.UserRepository;
 import ru.practicum.exception.DuplicatedDataException;
+import ru.practicum.exception.UniqueViolations;
+import ru.practicum.export.ExportFormat;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Objects;
 
@@ -22,6 +29,7 @@ import java.util.Objects;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserImporter userImporter;
 
     @Override
     @Transactional(readOnly = true)
@@ -41,15 +49,27 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDtoOutput createUser(UserDtoInput userDtoInput) {
-        if (userRepository.findAll().contains(userMapper.toUser(userDtoInput))) {
-            log.warn("Пользователь с id = {} уже добавлен в список.", userDtoInput.getId());
+        User user;
+        try {
+            user = userRepository.saveAndFlush(userMapper.toUser(userDtoInput));
+        } catch (DataIntegrityViolationException e) {
+            if (!UniqueViolations.isViolated(e, User.EMAIL_UNIQUE)) {
+                throw e;
+            }
+            log.warn("Пользователь с email = {} уже добавлен в список.", userDtoInput.getEmail());
             throw new DuplicatedDataException("Этот пользователь уже существует.");
         }
-        User user = userRepository.save(userMapper.toUser(userDtoInput));
         log.info("Пользователь с id = {} добавлен.", user.getId());
         return userMapper.toUserDto(user);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void importUsers(ExportFormat format, InputStream in, OutputStream out) throws IOException {
+        log.info("Запрос на импорт пользователей в формате {}.", format);
+        userImporter.importUsers(format, in, out);
+    }
+
     @Override
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
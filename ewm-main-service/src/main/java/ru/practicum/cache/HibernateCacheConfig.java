@@ -0,0 +1,32 @@
+package ru.practicum.cache;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Конфигурация Ehcache для кэша второго уровня. Hibernate открывает ее как URL, а протокол classpath:
+ * регистрирует только встроенный Tomcat, поэтому файл находится через Spring и передается настоящим URI.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final String EHCACHE_CONFIG = "classpath:ehcache.xml";
+
+    @Bean
+    public HibernatePropertiesCustomizer ehcacheConfigCustomizer(ResourceLoader resourceLoader) {
+        return properties -> {
+            try {
+                properties.put(ConfigSettings.CONFIG_URI,
+                        resourceLoader.getResource(EHCACHE_CONFIG).getURI().toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не найден файл конфигурации кэша " + EHCACHE_CONFIG, e);
+            }
+        };
+    }
+}
@@ -3,16 +3,17 @@ package ru.practicum.category.controller;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.category.dto.CategoryOutputDto;
 import ru.practicum.category.service.CategoryService;
+import ru.practicum.etag.Tagged;
 
 import java.util.List;
 
@@ -24,15 +25,22 @@ public class CategoryControllerPublic {
     private final CategoryService categoryService;
 
     @GetMapping("/{catId}")
-    @ResponseStatus(HttpStatus.OK)
-    public CategoryOutputDto getCategoryById(@PathVariable @Positive long catId) {
-        return categoryService.getCategoryById(catId);
+    public ResponseEntity<CategoryOutputDto> getCategoryById(@PathVariable @Positive long catId, WebRequest request) {
+        return toResponse(categoryService.getCategoryByIdPublic(catId), request);
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<CategoryOutputDto> getAllCategories(@RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                    @RequestParam(defaultValue = "10") @Positive int size) {
-        return categoryService.getAllCategories(from, size);
+    public ResponseEntity<List<CategoryOutputDto>> getAllCategories(
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size,
+            WebRequest request) {
+        return toResponse(categoryService.getAllCategoriesPublic(from, size), request);
+    }
+
+    private static <T> ResponseEntity<T> toResponse(Tagged<T> categories, WebRequest request) {
+        if (request.checkNotModified(categories.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(categories.etag()).body(categories.body().get());
     }
 }
\ No newline at end of file
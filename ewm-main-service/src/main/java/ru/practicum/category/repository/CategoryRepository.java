@@ -1,11 +1,7 @@
 package ru.practicum.category.repository;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.category.model.Category;
 
-import java.util.List;
-
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-    List<Category> findByIdInOrderByIdAsc(List<Long> ids, PageRequest pageRequest);
-}
\ No newline at end of file
+}
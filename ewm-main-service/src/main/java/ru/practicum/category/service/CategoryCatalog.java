@@ -0,0 +1,160 @@
+package ru.practicum.category.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.category.dto.CategoryOutputDto;
+import ru.practicum.category.model.Category;
+import ru.practicum.etag.EntityTag;
+import ru.practicum.etag.Tagged;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Все категории в памяти. Изменения категорий увеличивают версию в таблице catalog_versions,
+ * другие экземпляры сервиса замечают новую версию при опросе и перечитывают справочник.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryCatalog {
+
+    private static final String CATALOG = "categories";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public Optional<CategoryOutputDto> find(long catId) {
+        return find(snapshot(), catId);
+    }
+
+    /**
+     * Возвращает новый экземпляр категории без обращения к базе, пригодный для ссылки из события.
+     */
+    public Optional<Category> findCategory(long catId) {
+        Entry entry = snapshot().byId().get(catId);
+        return Optional.ofNullable(entry).map(found -> new Category(found.id(), found.name()));
+    }
+
+    public List<CategoryOutputDto> page(int from, int size) {
+        return page(snapshot(), from, size);
+    }
+
+    /**
+     * Ответы справочника полностью определяются его версией, поэтому ETag строится только по ней.
+     */
+    public Optional<Tagged<CategoryOutputDto>> findTagged(long catId) {
+        Snapshot current = snapshot();
+        return find(current, catId).map(category -> new Tagged<>(tag(current), () -> category));
+    }
+
+    public Tagged<List<CategoryOutputDto>> pageTagged(int from, int size) {
+        Snapshot current = snapshot();
+        return new Tagged<>(tag(current), () -> page(current, from, size));
+    }
+
+    public long version() {
+        return snapshot().version();
+    }
+
+    public boolean containsAll(Collection<Long> catIds) {
+        return snapshot().byId().keySet().containsAll(catIds);
+    }
+
+    /**
+     * Увеличивает версию справочника в текущей транзакции и перечитывает его после фиксации.
+     */
+    public void changed() {
+        jdbcTemplate.update("UPDATE catalog_versions SET version = version + 1 WHERE name = ?", CATALOG);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.categories.version-poll-ms:5000}")
+    public void poll() {
+        Snapshot current = snapshot;
+        if (current == null || current.version() != readVersion()) {
+            reload();
+        }
+    }
+
+    private static Optional<CategoryOutputDto> find(Snapshot current, long catId) {
+        Entry entry = current.byId().get(catId);
+        return Optional.ofNullable(entry).map(found -> new CategoryOutputDto(found.id(), found.name()));
+    }
+
+    private static List<CategoryOutputDto> page(Snapshot current, int from, int size) {
+        List<Entry> entries = current.ordered();
+        int start = Math.min(from / size * size, entries.size());
+        int end = Math.min(start + size, entries.size());
+        return entries.subList(start, end).stream()
+                .map(entry -> new CategoryOutputDto(entry.id(), entry.name()))
+                .toList();
+    }
+
+    private static String tag(Snapshot current) {
+        return EntityTag.of("categories").add(current.version()).build();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Блокировка вместо synchronized: чтение из базы под монитором закрепляет виртуальный поток за носителем.
+     */
+    private Snapshot reload() {
+        reloadLock.lock();
+        try {
+            long version = readVersion();
+            List<Entry> ordered = jdbcTemplate.query("SELECT id, name FROM categories ORDER BY id",
+                    (rs, rowNum) -> new Entry(rs.getLong("id"), rs.getString("name")));
+            Map<Long, Entry> byId = new HashMap<>();
+            ordered.forEach(entry -> byId.put(entry.id(), entry));
+            Snapshot loaded = new Snapshot(version, byId, ordered);
+            snapshot = loaded;
+            log.info("Справочник категорий загружен, версия: {}, категорий: {}.", version, ordered.size());
+            return loaded;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private long readVersion() {
+        Long version = jdbcTemplate.queryForObject("SELECT version FROM catalog_versions WHERE name = ?",
+                Long.class, CATALOG);
+        return version == null ? 0 : version;
+    }
+
+    private record Entry(long id, String name) {
+    }
+
+    private record Snapshot(long version, Map<Long, Entry> byId, List<Entry> ordered) {
+    }
+}
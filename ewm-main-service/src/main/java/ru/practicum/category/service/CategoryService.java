@@ -2,6 +2,7 @@ package ru.practicum.category.service;
 
 import ru.practicum.category.dto.CategoryInputDto;
 import ru.practicum.category.dto.CategoryOutputDto;
+import ru.practicum.etag.Tagged;
 
 import java.util.List;
 
@@ -15,4 +16,8 @@ public interface CategoryService {
     CategoryOutputDto getCategoryById(long catId);
 
     List<CategoryOutputDto> getAllCategories(int from, int size);
+
+    Tagged<CategoryOutputDto> getCategoryByIdPublic(long catId);
+
+    Tagged<List<CategoryOutputDto>> getAllCategoriesPublic(int from, int size);
 }
\ No newline at end of file
@@ -2,20 +2,23 @@ package ru.practicum.category.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.category.dto.CategoryInputDto;
 import ru.practicum.category.dto.CategoryOutputDto;
 import ru.practicum.category.mapper.CategoryMapper;
 import ru.practicum.category.model.Category;
 import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.compilation.service.CompilationsChangedEvent;
+import ru.practicum.etag.Tagged;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.DuplicatedDataException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.exception.UniqueViolations;
 
 import java.util.List;
 import java.util.Objects;
@@ -29,14 +32,22 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryCatalog categoryCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CategoryOutputDto createCategory(CategoryInputDto categoryInputDto) {
-        if (categoryRepository.findAll().contains(categoryMapper.toCategory(categoryInputDto))) {
-            log.warn("Категория с id = {} уже добавлена.", categoryInputDto.getId());
+        Category category;
+        try {
+            category = categoryRepository.saveAndFlush(categoryMapper.toCategory(categoryInputDto));
+        } catch (DataIntegrityViolationException e) {
+            if (!UniqueViolations.isViolated(e, Category.NAME_UNIQUE)) {
+                throw e;
+            }
+            log.warn("Категория с названием {} уже добавлена.", categoryInputDto.getName());
             throw new DuplicatedDataException("Эта категория уже существует.");
         }
-        Category category = categoryRepository.save(categoryMapper.toCategory(categoryInputDto));
+        categoryCatalog.changed();
         log.info("Категория c id {} добавлена.", category.getId());
         return categoryMapper.toCategoryOutputDto(category);
     }
@@ -48,6 +59,17 @@ public class CategoryServiceImpl implements CategoryService {
 
         if (Objects.nonNull(categoryInputDto.getName())) {
             category.setName(categoryInputDto.getName());
+            try {
+                categoryRepository.flush();
+            } catch (DataIntegrityViolationException e) {
+                if (!UniqueViolations.isViolated(e, Category.NAME_UNIQUE)) {
+                    throw e;
+                }
+                log.warn("Категория с названием {} уже существует.", categoryInputDto.getName());
+                throw new DuplicatedDataException("Эта категория уже существует.");
+            }
+            categoryCatalog.changed();
+            eventPublisher.publishEvent(new CompilationsChangedEvent("переименование категории " + catId));
         }
 
         log.info("Категория с id = {} обновлена.", catId);
@@ -61,24 +83,39 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ConflictException("Нельзя удалить категорию, с которой связаны события.");
         }
         categoryRepository.deleteById(catId);
+        categoryCatalog.changed();
         log.info("Категория с id  = {} удалена.", catId);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public CategoryOutputDto getCategoryById(long catId) {
-        Category category = categoryRepository.findById(catId)
+        CategoryOutputDto category = categoryCatalog.find(catId)
                 .orElseThrow(() -> new NotFoundException("Категории с id = {} не существует." + catId));
         log.info("Получение категории по id {}.", catId);
-        return categoryMapper.toCategoryOutputDto(category);
+        return category;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CategoryOutputDto> getAllCategories(int from, int size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        Page<Category> categoryPage = categoryRepository.findAll(pageable);
         log.info("Получение списка всех категорий.");
-        return categoryMapper.toCategoryOutputDtoList(categoryPage.getContent());
+        return categoryCatalog.page(from, size);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Tagged<CategoryOutputDto> getCategoryByIdPublic(long catId) {
+        Tagged<CategoryOutputDto> category = categoryCatalog.findTagged(catId)
+                .orElseThrow(() -> new NotFoundException("Категории с id = {} не существует." + catId));
+        log.info("Получение категории по id {}.", catId);
+        return category;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Tagged<List<CategoryOutputDto>> getAllCategoriesPublic(int from, int size) {
+        log.info("Получение списка всех категорий.");
+        return categoryCatalog.pageTagged(from, size);
     }
-}
\ No newline at end of file
+}
@@ -3,18 +3,22 @@ package ru.practicum.compilation.contoller;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.compilation.dto.CompilationDtoOutput;
 import ru.practicum.compilation.service.CompilationServiceImpl;
+import ru.practicum.compilation.service.PinnedCompilationsSnapshot;
+import ru.practicum.etag.Tagged;
 
 import java.util.List;
+import java.util.Optional;
 
 @Validated
 @RestController
@@ -23,18 +27,43 @@ import java.util.List;
 public class PublicCompilationController {
 
     private final CompilationServiceImpl compilationService;
+    private final PinnedCompilationsSnapshot pinnedCompilationsSnapshot;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<CompilationDtoOutput> getAllCompilations(@RequestParam(required = false) Boolean pinned,
-                                                         @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                         @RequestParam(defaultValue = "10") @Positive int size) {
-        return compilationService.getAllCompilations(pinned, from, size);
+    public ResponseEntity<List<CompilationDtoOutput>> getAllCompilations(
+            @RequestParam(required = false) Boolean pinned,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size,
+            WebRequest request) {
+        return toResponse(compilationService.getAllCompilationsPublic(pinned, from, size), request);
+    }
+
+    @GetMapping(params = "pinned=true")
+    public ResponseEntity<?> getPinnedCompilations(@RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                   @RequestParam(defaultValue = "10") @Positive int size,
+                                                   WebRequest request) {
+        Optional<PinnedCompilationsSnapshot.Page> page = pinnedCompilationsSnapshot.page(from, size);
+        if (page.isEmpty()) {
+            return toResponse(compilationService.getAllCompilationsPublic(true, from, size), request);
+        }
+        if (request.checkNotModified(page.get().etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(page.get().etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(page.get().body());
     }
 
     @GetMapping("/{compId}")
-    @ResponseStatus(HttpStatus.OK)
-    public CompilationDtoOutput getCompilationById(@PathVariable Long compId) {
-        return compilationService.getCompilationById(compId);
+    public ResponseEntity<CompilationDtoOutput> getCompilationById(@PathVariable Long compId, WebRequest request) {
+        return toResponse(compilationService.getCompilationByIdPublic(compId), request);
+    }
+
+    private static <T> ResponseEntity<T> toResponse(Tagged<T> compilations, WebRequest request) {
+        if (request.checkNotModified(compilations.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(compilations.etag()).body(compilations.body().get());
     }
 }
\ No newline at end of file
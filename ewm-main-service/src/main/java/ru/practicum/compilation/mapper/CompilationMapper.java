@@ -16,8 +16,10 @@ public interface CompilationMapper {
     CompilationMapper INSTANCE = Mappers.getMapper(CompilationMapper.class);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "events", source = "events")
     Compilation toCompilation(CompilationDtoInput dto, List<Event> events);
 
+    @Mapping(target = "events", source = "eventShortDtoList")
     CompilationDtoOutput toCompilationDto(Compilation compilation, List<EventShortDto> eventShortDtoList);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.compilation.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -7,7 +8,9 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.*;
 import ru.practicum.event.model.Event;
 
@@ -22,7 +25,8 @@ import java.util.List;
 public class Compilation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "compilations_seq")
+    @SequenceGenerator(name = "compilations_seq", sequenceName = "compilations_seq", allocationSize = 10)
     private Long id;
 
     @ManyToMany
@@ -34,4 +38,8 @@ public class Compilation {
     private Boolean pinned;
 
     private String title;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
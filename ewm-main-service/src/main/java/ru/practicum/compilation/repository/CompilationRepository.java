@@ -6,7 +6,7 @@ import ru.practicum.compilation.model.Compilation;
 
 import java.util.List;
 
-public interface CompilationRepository extends JpaRepository<Compilation, Long> {
+public interface CompilationRepository extends JpaRepository<Compilation, Long>, CompilationRepositoryCustom {
 
     List<Compilation> findByPinned(Boolean pinned, Pageable pageable);
 }
@@ -0,0 +1,12 @@
+package ru.practicum.compilation.repository;
+
+import ru.practicum.event.dto.EventShortView;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CompilationRepositoryCustom {
+
+    Map<Long, List<EventShortView>> findEventViewsByCompilationIds(Collection<Long> compilationIds);
+}
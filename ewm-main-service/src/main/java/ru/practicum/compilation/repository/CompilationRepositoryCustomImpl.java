@@ -0,0 +1,47 @@
+package ru.practicum.compilation.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import ru.practicum.event.dto.EventShortView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ru.practicum.User.model.QUser.user;
+import static ru.practicum.category.model.QCategory.category;
+import static ru.practicum.compilation.model.QCompilation.compilation;
+import static ru.practicum.event.model.QEvent.event;
+
+public class CompilationRepositoryCustomImpl implements CompilationRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    public CompilationRepositoryCustomImpl(EntityManager entityManager) {
+        this.queryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    @Override
+    public Map<Long, List<EventShortView>> findEventViewsByCompilationIds(Collection<Long> compilationIds) {
+        List<Tuple> rows = queryFactory.select(compilation.id, Projections.constructor(EventShortView.class,
+                        event.id, user.id, user.name, category.id, category.name,
+                        event.confirmedRequests, event.title, event.annotation, event.eventDate, event.paid,
+                        event.version))
+                .from(compilation)
+                .join(compilation.events, event)
+                .join(event.initiator, user)
+                .join(event.category, category)
+                .where(compilation.id.in(compilationIds))
+                .orderBy(compilation.id.asc(), event.id.asc())
+                .fetch();
+        Map<Long, List<EventShortView>> events = new HashMap<>();
+        for (Tuple row : rows) {
+            events.computeIfAbsent(row.get(compilation.id), id -> new ArrayList<>()).add(row.get(1, EventShortView.class));
+        }
+        return events;
+    }
+}
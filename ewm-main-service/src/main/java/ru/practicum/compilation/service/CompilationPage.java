@@ -0,0 +1,25 @@
+package ru.practicum.compilation.service;
+
+import ru.practicum.compilation.model.Compilation;
+import ru.practicum.event.dto.EventShortView;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Подборки и их события, прочитанные из базы, до запроса просмотров и сборки DTO.
+ */
+public record CompilationPage(List<Compilation> compilations, Map<Long, List<EventShortView>> events) {
+
+    public List<EventShortView> events(Compilation compilation) {
+        return events.getOrDefault(compilation.getId(), List.of());
+    }
+
+    public List<Long> eventIds() {
+        return events.values().stream()
+                .flatMap(List::stream)
+                .map(EventShortView::id)
+                .distinct()
+                .toList();
+    }
+}
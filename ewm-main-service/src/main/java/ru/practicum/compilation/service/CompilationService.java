@@ -3,6 +3,7 @@ package ru.practicum.compilation.service;
 import ru.practicum.compilation.dto.CompilationDtoInput;
 import ru.practicum.compilation.dto.CompilationDtoOutput;
 import ru.practicum.compilation.dto.CompilationUpdateDto;
+import ru.practicum.etag.Tagged;
 
 import java.util.List;
 
@@ -17,4 +18,8 @@ public interface CompilationService {
     List<CompilationDtoOutput> getAllCompilations(Boolean pinned, int from, int size);
 
     CompilationDtoOutput getCompilationById(Long compId);
+
+    Tagged<List<CompilationDtoOutput>> getAllCompilationsPublic(Boolean pinned, int from, int size);
+
+    Tagged<CompilationDtoOutput> getCompilationByIdPublic(Long compId);
 }
@@ -2,23 +2,28 @@ package ru.practicum.compilation.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.category.service.CategoryCatalog;
 import ru.practicum.compilation.dto.CompilationDtoInput;
 import ru.practicum.compilation.dto.CompilationDtoOutput;
 import ru.practicum.compilation.dto.CompilationUpdateDto;
 import ru.practicum.compilation.mapper.CompilationMapper;
 import ru.practicum.compilation.model.Compilation;
 import ru.practicum.compilation.repository.CompilationRepository;
+import ru.practicum.etag.EntityTag;
+import ru.practicum.etag.Tagged;
 import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.Event;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.stat.service.StatsService;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Slf4j
@@ -31,6 +36,9 @@ public class CompilationServiceImpl implements CompilationService {
     private final EventRepository eventRepository;
     private final CompilationMapper compilationMapper;
     private final EventMapper eventMapper;
+    private final StatsService statsService;
+    private final CategoryCatalog categoryCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CompilationDtoOutput createCompilation(CompilationDtoInput compilationRequestDto) {
@@ -41,14 +49,14 @@ public class CompilationServiceImpl implements CompilationService {
         }
         Compilation newCompilation = compilationRepository.save(compilation);
         log.info("Подборка с id = {} создана.", compilation.getId());
-        return compilationMapper.toCompilationDto(newCompilation, events.stream()
-                .map(eventMapper::toEventShortDto)
-                .toList());
+        eventPublisher.publishEvent(new CompilationsChangedEvent("создание подборки " + newCompilation.getId()));
+        return toCompilationDtos(List.of(newCompilation)).getFirst();
     }
 
     @Override
     public void deleteCompilation(Long compId) {
         compilationRepository.deleteById(compId);
+        eventPublisher.publishEvent(new CompilationsChangedEvent("удаление подборки " + compId));
         log.info("Удаление подборки с id = {} администратором.", compId);
     }
 
@@ -56,9 +64,8 @@ public class CompilationServiceImpl implements CompilationService {
     public CompilationDtoOutput updateCompilation(CompilationUpdateDto compilationUpdateDto, Long compId) {
         Compilation compilation = compilationRepository.findById(compId)
                 .orElseThrow(() -> new NotFoundException("Подборки с id = {} не существует." + compId));
-        List<Event> events = eventRepository.findByIdIn(compilationUpdateDto.getEvents());
         if (Objects.nonNull(compilationUpdateDto.getEvents())) {
-            compilation.setEvents(events);
+            compilation.setEvents(eventRepository.findByIdIn(compilationUpdateDto.getEvents()));
         }
         if (Objects.nonNull(compilationUpdateDto.getPinned())) {
             compilation.setPinned(compilationUpdateDto.getPinned());
@@ -67,14 +74,35 @@ public class CompilationServiceImpl implements CompilationService {
             compilation.setTitle(compilationUpdateDto.getTitle());
         }
         log.info("Обновление данных подборки с id = {}.", compId);
-        return compilationMapper.toCompilationDto(compilation, events.stream()
-                .map(eventMapper::toEventShortDto)
-                .toList());
+        eventPublisher.publishEvent(new CompilationsChangedEvent("обновление подборки " + compId));
+        return toCompilationDtos(List.of(compilation)).getFirst();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CompilationDtoOutput> getAllCompilations(Boolean pinned, int from, int size) {
+        return getAllCompilationsPublic(pinned, from, size).body().get();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CompilationDtoOutput getCompilationById(Long compId) {
+        return getCompilationByIdPublic(compId).body().get();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Tagged<List<CompilationDtoOutput>> getAllCompilationsPublic(Boolean pinned, int from, int size) {
+        return withViews(findCompilations(pinned, from, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Tagged<CompilationDtoOutput> getCompilationByIdPublic(Long compId) {
+        return withViews(findCompilationById(compId)).map(List::getFirst);
+    }
+
+    private CompilationPage findCompilations(Boolean pinned, int from, int size) {
         PageRequest pageRequest = PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "id"));
         List<Compilation> compilationList;
         if (Objects.nonNull(pinned)) {
@@ -84,24 +112,52 @@ public class CompilationServiceImpl implements CompilationService {
         }
         if (compilationList.isEmpty()) {
             log.info("Подборок событий еще нет.");
-            return new ArrayList<>();
+            return new CompilationPage(List.of(), Map.of());
         }
         log.info("Получение списка подборок событий.");
-        return compilationList.stream()
-                .map(c -> compilationMapper.toCompilationDto(c, c.getEvents().stream()
-                        .map(eventMapper::toEventShortDto).toList()))
-                .toList();
+        return toPage(compilationList);
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public CompilationDtoOutput getCompilationById(Long compId) {
+    private CompilationPage findCompilationById(Long compId) {
         Compilation compilation = compilationRepository.findById(compId)
                 .orElseThrow(() -> new NotFoundException("Подборки с id = {} не существует." + compId));
         log.info("Получение данных подборки с id = {}.", compId);
-        return compilationMapper.toCompilationDto(compilation,
-                compilation.getEvents().stream()
+        return toPage(List.of(compilation));
+    }
+
+    /**
+     * ETag считается по версиям подборок и их событий, DTO собираются только при запросе тела.
+     */
+    private Tagged<List<CompilationDtoOutput>> toPublicDtos(CompilationPage page, Map<Long, Long> views) {
+        EntityTag tag = EntityTag.of("compilations").add(categoryCatalog.version());
+        for (Compilation compilation : page.compilations()) {
+            tag.add(compilation.getId()).add(compilation.getVersion());
+            page.events(compilation).forEach(event -> tag.add(event.id())
+                    .add(event.initiatorId())
+                    .add(event.initiatorName())
+                    .add(event.version())
+                    .add(event.confirmedRequests())
+                    .add(views.get(event.id())));
+        }
+        return new Tagged<>(tag.build(), () -> page.compilations().stream()
+                .map(c -> compilationMapper.toCompilationDto(c, page.events(c).stream()
                         .map(eventMapper::toEventShortDto)
-                        .toList());
+                        .peek(dto -> dto.setViews(views.getOrDefault(dto.getId(), 0L).intValue()))
+                        .toList()))
+                .toList());
+    }
+
+    private Tagged<List<CompilationDtoOutput>> withViews(CompilationPage page) {
+        List<Long> eventIds = page.eventIds();
+        return toPublicDtos(page, eventIds.isEmpty() ? Map.of() : statsService.getView(eventIds, false));
+    }
+
+    private List<CompilationDtoOutput> toCompilationDtos(List<Compilation> compilations) {
+        return withViews(toPage(compilations)).body().get();
+    }
+
+    private CompilationPage toPage(List<Compilation> compilations) {
+        return new CompilationPage(compilations, compilationRepository.findEventViewsByCompilationIds(
+                compilations.stream().map(Compilation::getId).toList()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package ru.practicum.compilation.service;
+
+import java.util.Collection;
+
+/**
+ * Изменение, после которого закрепленные подборки могут выглядеть иначе. Если eventIds заданы,
+ * снимок пересобирается, только когда хотя бы одно из этих событий входит в закрепленную подборку.
+ */
+public record CompilationsChangedEvent(String reason, Collection<Long> eventIds) {
+
+    public CompilationsChangedEvent(String reason) {
+        this(reason, null);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.compilation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.compilation.dto.CompilationDtoOutput;
+import ru.practicum.etag.EntityTag;
+import ru.practicum.event.dto.EventShortDto;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Заранее сериализованные закрепленные подборки. Снимок пересобирается асинхронно после изменений
+ * подборок, категорий, событий из подборок и их заявок и просмотров, а также по расписанию.
+ * Изменения, пришедшие во время пересборки, сливаются в одну следующую пересборку.
+ * ETag страницы считается по ее сериализованному содержимому, поэтому совпадает у всех экземпляров
+ * и не сбрасывается при перезапуске.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PinnedCompilationsSnapshot {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final CompilationService compilationService;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    public Optional<Page> page(int from, int size) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int start = Math.min(from / size * size, current.compilations().size());
+        int end = Math.min(start + size, current.compilations().size());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        EntityTag tag = EntityTag.of("pinned");
+        body.write('[');
+        for (int i = start; i < end; i++) {
+            if (i > start) {
+                body.write(',');
+            }
+            body.writeBytes(current.compilations().get(i));
+            tag.add(current.compilations().get(i));
+        }
+        body.write(']');
+        return Optional.of(new Page(body.toByteArray(), tag.build()));
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(CompilationsChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current != null && event.eventIds() != null
+                && event.eventIds().stream().noneMatch(current.eventIds()::contains)) {
+            return;
+        }
+        log.debug("Пересборка закрепленных подборок: {}.", event.reason());
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.compilations.snapshot-refresh-ms:60000}",
+            initialDelayString = "${ewm.compilations.snapshot-refresh-ms:60000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    private void rebuild() {
+        dirty.set(true);
+        while (dirty.get() && rebuildLock.tryLock()) {
+            try {
+                while (dirty.getAndSet(false)) {
+                    build();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    private void build() {
+        try {
+            List<byte[]> compilations = new ArrayList<>();
+            Set<Long> eventIds = new HashSet<>();
+            List<CompilationDtoOutput> batch;
+            int page = 0;
+            do {
+                batch = compilationService.getAllCompilations(true, page * BATCH_SIZE, BATCH_SIZE);
+                for (CompilationDtoOutput compilation : batch) {
+                    compilations.add(objectMapper.writeValueAsBytes(compilation));
+                    compilation.getEvents().stream().map(EventShortDto::getId).forEach(eventIds::add);
+                }
+                page++;
+            } while (batch.size() == BATCH_SIZE);
+            snapshot = new Snapshot(List.copyOf(compilations), Set.copyOf(eventIds));
+            log.info("Снимок закрепленных подборок обновлен, подборок: {}.", compilations.size());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Не удалось обновить снимок закрепленных подборок: {}", e.getMessage());
+        }
+    }
+
+    public record Page(byte[] body, String etag) {
+    }
+
+    private record Snapshot(List<byte[]> compilations, Set<Long> eventIds) {
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ewm.datasource")
+public class DataSourceRoutingProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Максимально допустимое отставание реплики, после которого чтение уходит на основную базу.
+     */
+    private long maxLagMs = 5000;
+
+    private long lagCheckIntervalMs = 1000;
+
+    /**
+     * Запрос, возвращающий отставание реплики в миллисекундах.
+     */
+    private String lagQuery = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END""";
+
+    /**
+     * Сколько миллисекунд после изменения клиент читает с основной базы.
+     */
+    private long readYourWritesMs = 3000;
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
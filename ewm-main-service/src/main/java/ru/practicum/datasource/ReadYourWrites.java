@@ -0,0 +1,24 @@
+package ru.practicum.datasource;
+
+/**
+ * Признак того, что текущий запрос должен читать с основной базы, чтобы увидеть собственные изменения.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Изменяющие запросы возвращают время записи в заголовке X-Last-Write. Клиент, передавший этот заголовок
+ * обратно, читает с основной базы, пока не истечет окно read-your-writes.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String LAST_WRITE_HEADER = "X-Last-Write";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long windowMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            response.setHeader(LAST_WRITE_HEADER, String.valueOf(now));
+            ReadYourWrites.pin();
+        } else if (isRecent(request.getHeader(LAST_WRITE_HEADER), now)) {
+            ReadYourWrites.pin();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private boolean isRecent(String lastWrite, long now) {
+        if (lastWrite == null) {
+            return false;
+        }
+        try {
+            long elapsed = now - Long.parseLong(lastWrite.trim());
+            return elapsed >= 0 && elapsed <= windowMs;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник соединений для транзакций только на чтение. Реплики выбираются по кругу,
+ * отстающие или недоступные реплики пропускаются, а при их отсутствии используется основная база.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private final List<ReplicaState> replicas;
+    private final long maxLagMs;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long maxLagMs, String lagQuery) {
+        this.replicas = replicas.stream().map(ReplicaState::new).toList();
+        this.maxLagMs = maxLagMs;
+        this.lagQuery = lagQuery;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReadYourWrites.isPinned()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (replicas.get(index).healthy) {
+                return index;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.datasource.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaState replica = replicas.get(i);
+            String problem = null;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                long lag = rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+                if (lag > maxLagMs) {
+                    problem = "отставание " + lag + " мс";
+                }
+            } catch (Exception e) {
+                problem = e.getMessage();
+            }
+            boolean healthy = problem == null;
+            if (healthy && !replica.healthy) {
+                log.info("Реплика {} используется для чтения.", i);
+            } else if (!healthy && replica.healthy) {
+                log.warn("Реплика {} исключена из чтения: {}", i, problem);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    private static final class ReplicaState {
+
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+
+        private ReplicaState(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршрутизация соединений: транзакции только на чтение уходят на реплики, остальные на основную базу.
+ * Включается свойством ewm.datasource.routing.enabled=true.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+@ConditionalOnProperty(name = "ewm.datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceRoutingProperties properties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            DataSourceRoutingProperties.Replica replica = properties.getReplicas().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .driverClassName(replica.getDriverClassName())
+                    .build();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setReadOnly(true);
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            meterRegistry.ifAvailable(registry ->
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(dataSource);
+        }
+        log.info("Маршрутизация чтения включена, реплик: {}.", replicas.size());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getMaxLagMs(),
+                properties.getLagQuery());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(DataSourceRoutingProperties properties) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWritesMs()));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.etag;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ETag ответа, вычисляемый по идентификаторам и версиям сущностей без сериализации тела.
+ * Тег слабый: Tomcat не сжимает ответы с сильным ETag, а для If-None-Match достаточно слабого сравнения.
+ */
+public final class EntityTag {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String kind;
+    private long hash = FNV_OFFSET;
+
+    private EntityTag(String kind) {
+        this.kind = kind;
+    }
+
+    public static EntityTag of(String kind) {
+        return new EntityTag(kind);
+    }
+
+    public EntityTag add(Long value) {
+        long bits = value == null ? Long.MIN_VALUE : value;
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash ^= (bits >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return this;
+    }
+
+    public EntityTag add(Integer value) {
+        return add(value == null ? null : value.longValue());
+    }
+
+    /**
+     * Строковые поля из связанных сущностей без собственной версии. Длина добавляется первой,
+     * чтобы соседние строки не склеивались.
+     */
+    public EntityTag add(String value) {
+        return add(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Уже сериализованное содержимое, например фрагмент тела из снимка.
+     */
+    public EntityTag add(byte[] value) {
+        if (value == null) {
+            return add((Long) null);
+        }
+        add((long) value.length);
+        for (byte b : value) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return this;
+    }
+
+    public String build() {
+        return "W/\"" + kind + "-" + Long.toHexString(hash) + "\"";
+    }
+}
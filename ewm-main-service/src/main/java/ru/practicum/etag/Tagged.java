@@ -0,0 +1,14 @@
+package ru.practicum.etag;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Результат с заранее вычисленным ETag. Тело собирается только если клиенту нужен полный ответ.
+ */
+public record Tagged<T>(String etag, Supplier<T> body) {
+
+    public <R> Tagged<R> map(Function<T, R> mapper) {
+        return new Tagged<>(etag, () -> mapper.apply(body.get()));
+    }
+}
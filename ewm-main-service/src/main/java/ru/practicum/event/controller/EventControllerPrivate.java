@@ -1,10 +1,13 @@
 package ru.practicum.event.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -15,13 +18,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventNewDto;
 import ru.practicum.event.dto.EventShortDto;
 import ru.practicum.event.dto.EventUpdateDto;
 import ru.practicum.event.service.EventService;
+import ru.practicum.export.ExportFormat;
 import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.request.model.ParticipationRequestStatus;
 
 import java.util.List;
 import java.util.Map;
@@ -63,8 +69,25 @@ public class EventControllerPrivate {
 
     @GetMapping("/{eventId}/requests")
     @ResponseStatus(HttpStatus.OK)
-    public List<ParticipationRequestDto> getRequestsByEventId(@PathVariable Long userId, @PathVariable Long eventId) {
-        return eventService.getRequestsByEventId(userId, eventId);
+    public List<ParticipationRequestDto> getRequestsByEventId(@PathVariable Long userId,
+                                                              @PathVariable Long eventId,
+                                                              @RequestParam(required = false)
+                                                              ParticipationRequestStatus status,
+                                                              @RequestParam(defaultValue = "0") @PositiveOrZero long afterId,
+                                                              @RequestParam(defaultValue = "1000") @Positive @Max(10000)
+                                                              int size) {
+        return eventService.getRequestsByEventId(userId, eventId, status, afterId, size);
+    }
+
+    @GetMapping("/{eventId}/requests/export")
+    public ResponseEntity<StreamingResponseBody> exportRequestsByEventId(
+            @PathVariable Long userId,
+            @PathVariable Long eventId,
+            @RequestParam(required = false) ParticipationRequestStatus status,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(eventService.exportRequestsByEventId(userId, eventId, status, format));
     }
 
     @PatchMapping("/{eventId}/requests")
@@ -4,18 +4,20 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.etag.Tagged;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
 import ru.practicum.event.model.EventSort;
 import ru.practicum.event.service.EventService;
+import ru.practicum.stat.service.StatsService;
 
 import java.util.List;
 
@@ -25,10 +27,10 @@ import java.util.List;
 @RequestMapping("/events")
 public class EventControllerPublic {
     private final EventService eventService;
+    private final StatsService statsService;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<EventShortDto> getAllPublic(
+    public ResponseEntity<List<EventShortDto>> getAllPublic(
             @RequestParam(defaultValue = "") String text,
             @RequestParam(required = false) List<Long> categories,
             @RequestParam(required = false) Boolean paid,
@@ -38,14 +40,29 @@ public class EventControllerPublic {
             @RequestParam(required = false) EventSort sort,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
             @RequestParam(defaultValue = "10") @Positive int size,
-            HttpServletRequest request) {
-        return eventService.getAllPublic(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size,
-                request);
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) @Positive Double radiusKm,
+            HttpServletRequest request,
+            WebRequest webRequest) {
+        Tagged<List<EventShortDto>> events = eventService.getAllPublic(text, categories, paid, rangeStart, rangeEnd,
+                onlyAvailable, sort, from, size, lat, lon, radiusKm);
+        statsService.createStats(request.getRequestURI(), request.getRemoteAddr());
+        if (webRequest.checkNotModified(events.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(events.etag()).body(events.body().get());
     }
 
     @GetMapping("/{eventId}")
-    @ResponseStatus(HttpStatus.OK)
-    public EventFullDto getEventByIdPublic(@PathVariable Long eventId, HttpServletRequest request) {
-        return eventService.getEventByIdPublic(eventId, request);
+    public ResponseEntity<EventFullDto> getEventByIdPublic(@PathVariable Long eventId,
+                                                           HttpServletRequest request,
+                                                           WebRequest webRequest) {
+        Tagged<EventFullDto> event = eventService.getEventByIdPublic(eventId);
+        statsService.createStats(request.getRequestURI(), request.getRemoteAddr());
+        if (webRequest.checkNotModified(event.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(event.etag()).body(event.body().get());
     }
 }
\ No newline at end of file
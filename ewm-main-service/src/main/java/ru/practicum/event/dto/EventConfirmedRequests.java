@@ -0,0 +1,5 @@
+package ru.practicum.event.dto;
+
+public record EventConfirmedRequests(Long id,
+                                     Integer confirmedRequests) {
+}
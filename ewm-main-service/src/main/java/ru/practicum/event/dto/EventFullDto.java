@@ -1,6 +1,7 @@
 package ru.practicum.event.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import ru.practicum.User.dto.UserDtoShort;
 import ru.practicum.category.dto.CategoryOutputDto;
@@ -10,7 +11,7 @@ import ru.practicum.event.model.Location;
 import java.time.LocalDateTime;
 
 @Data
-public class EventFullDto {
+public class EventFullDto implements VersionedEventDto {
 
     public static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
@@ -47,5 +48,12 @@ public class EventFullDto {
 
     private Boolean requestModeration;
 
+    /**
+     * В публичном API - текущее число просмотров из сервиса статистики, в административном и приватном -
+     * значение на момент последней синхронизации просмотров; 0 для событий, которые еще не синхронизировались.
+     */
     private Integer views;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -1,6 +1,7 @@
 package ru.practicum.event.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import ru.practicum.User.dto.UserDtoShort;
 import ru.practicum.category.dto.CategoryOutputDto;
@@ -10,7 +11,7 @@ import java.time.LocalDateTime;
 import static ru.practicum.event.dto.EventFullDto.DATE_TIME_FORMAT;
 
 @Data
-public class EventShortDto {
+public class EventShortDto implements VersionedEventDto {
 
     private Long id;
 
@@ -30,4 +31,7 @@ public class EventShortDto {
     private Boolean paid;
 
     private Integer views;
+
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
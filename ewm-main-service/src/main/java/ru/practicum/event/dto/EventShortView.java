@@ -0,0 +1,16 @@
+package ru.practicum.event.dto;
+
+import java.time.LocalDateTime;
+
+public record EventShortView(Long id,
+                             Long initiatorId,
+                             String initiatorName,
+                             Long categoryId,
+                             String categoryName,
+                             Integer confirmedRequests,
+                             String title,
+                             String annotation,
+                             LocalDateTime eventDate,
+                             Boolean paid,
+                             Long version) {
+}
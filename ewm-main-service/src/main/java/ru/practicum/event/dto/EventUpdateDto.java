@@ -37,6 +37,8 @@ public class EventUpdateDto {
 
     private Boolean requestModeration;
 
+    private Boolean highDemand;
+
     private StateAction stateAction;
 
     @Size(min = 3, max = 120)
@@ -0,0 +1,23 @@
+package ru.practicum.event.dto;
+
+import ru.practicum.User.dto.UserDtoShort;
+import ru.practicum.category.dto.CategoryOutputDto;
+
+/**
+ * Поля DTO события, по которым сериализатор переиспользует закодированные фрагменты JSON.
+ * Версия заполняется только для данных, прочитанных из базы без изменений в текущей транзакции.
+ */
+public interface VersionedEventDto {
+
+    Long getId();
+
+    Long getVersion();
+
+    UserDtoShort getInitiator();
+
+    CategoryOutputDto getCategory();
+
+    Integer getConfirmedRequests();
+
+    Integer getViews();
+}
@@ -0,0 +1,123 @@
+package ru.practicum.event.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Геохеш точки в виде 60-битного числа (12 символов base32). Ячейка длины {@code p} символов
+ * соответствует непрерывному диапазону значений, поэтому поиск по ней сводится к BETWEEN по B-tree индексу.
+ */
+public final class GeoCell {
+
+    public static final int MAX_PRECISION = 12;
+    /**
+     * Наибольшее число диапазонов из coveringRanges: ячейка центра и восемь соседей.
+     */
+    public static final int MAX_RANGES = 9;
+    static final double KM_PER_DEGREE = 111.32;
+    private static final int BITS = MAX_PRECISION * 5;
+
+    private GeoCell() {
+    }
+
+    public static long encode(double lat, double lon) {
+        double minLat = -90;
+        double maxLat = 90;
+        double minLon = -180;
+        double maxLon = 180;
+        long cell = 0;
+        for (int i = 0; i < BITS; i++) {
+            cell <<= 1;
+            if (i % 2 == 0) {
+                double mid = (minLon + maxLon) / 2;
+                if (lon >= mid) {
+                    cell |= 1;
+                    minLon = mid;
+                } else {
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    cell |= 1;
+                    minLat = mid;
+                } else {
+                    maxLat = mid;
+                }
+            }
+        }
+        return cell;
+    }
+
+    /**
+     * Диапазоны значений, покрывающие круг: ячейка центра и ее соседи на самой мелкой точности,
+     * при которой ячейка не меньше радиуса. Пустой список означает, что ограничение по ячейкам не нужно.
+     */
+    public static List<Range> coveringRanges(double lat, double lon, double radiusKm) {
+        double maxAbsLat = Math.min(90, Math.abs(lat) + radiusKm / KM_PER_DEGREE);
+        int precision = precisionFor(radiusKm, maxAbsLat);
+        if (precision == 0) {
+            return List.of();
+        }
+        int shift = BITS - precision * 5;
+        double latSpan = 180.0 / (1L << (precision * 5 / 2));
+        double lonSpan = 360.0 / (1L << ((precision * 5 + 1) / 2));
+
+        TreeSet<Long> prefixes = new TreeSet<>();
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            double neighbourLat = lat + dLat * latSpan;
+            if (neighbourLat < -90 || neighbourLat > 90) {
+                continue;
+            }
+            for (int dLon = -1; dLon <= 1; dLon++) {
+                double neighbourLon = normalizeLon(lon + dLon * lonSpan);
+                prefixes.add(encode(neighbourLat, neighbourLon) >>> shift);
+            }
+        }
+
+        List<Range> ranges = new ArrayList<>();
+        long rangeStart = -1;
+        long previous = -1;
+        for (long prefix : prefixes) {
+            if (rangeStart < 0) {
+                rangeStart = prefix;
+            } else if (prefix != previous + 1) {
+                ranges.add(Range.of(rangeStart, previous, shift));
+                rangeStart = prefix;
+            }
+            previous = prefix;
+        }
+        ranges.add(Range.of(rangeStart, previous, shift));
+        return ranges;
+    }
+
+    static int precisionFor(double radiusKm, double maxAbsLat) {
+        double lonScale = Math.cos(Math.toRadians(maxAbsLat));
+        for (int precision = MAX_PRECISION; precision > 0; precision--) {
+            double heightKm = 180.0 / (1L << (precision * 5 / 2)) * KM_PER_DEGREE;
+            double widthKm = 360.0 / (1L << ((precision * 5 + 1) / 2)) * KM_PER_DEGREE * lonScale;
+            if (heightKm >= radiusKm && widthKm >= radiusKm) {
+                return precision;
+            }
+        }
+        return 0;
+    }
+
+    private static double normalizeLon(double lon) {
+        if (lon < -180) {
+            return lon + 360;
+        }
+        if (lon >= 180) {
+            return lon - 360;
+        }
+        return lon;
+    }
+
+    public record Range(long from, long to) {
+
+        private static Range of(long firstPrefix, long lastPrefix, int shift) {
+            return new Range(firstPrefix << shift, ((lastPrefix + 1) << shift) - 1);
+        }
+    }
+}
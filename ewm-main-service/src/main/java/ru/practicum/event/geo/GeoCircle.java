@@ -0,0 +1,62 @@
+package ru.practicum.event.geo;
+
+import java.util.List;
+
+public record GeoCircle(double lat, double lon, double radiusKm) {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    public double distanceKm(double otherLat, double otherLon) {
+        double dLat = Math.toRadians(otherLat - lat);
+        double dLon = Math.toRadians(otherLon - lon);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(otherLat))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public boolean contains(double otherLat, double otherLon) {
+        return distanceKm(otherLat, otherLon) <= radiusKm;
+    }
+
+    /**
+     * Верхняя граница подкоренного выражения формулы гаверсинусов для точек внутри круга. Выражение монотонно
+     * по расстоянию, поэтому база фильтрует и сортирует по нему без asin и sqrt.
+     */
+    public double haversineLimit() {
+        double half = radiusKm / (2 * EARTH_RADIUS_KM);
+        if (half >= Math.PI / 2) {
+            return 1;
+        }
+        double sin = Math.sin(half);
+        return sin * sin;
+    }
+
+    public List<GeoCell.Range> cellRanges() {
+        return GeoCell.coveringRanges(lat, lon, radiusKm);
+    }
+
+    public double minLat() {
+        return Math.max(-90, lat - radiusKm / GeoCell.KM_PER_DEGREE);
+    }
+
+    public double maxLat() {
+        return Math.min(90, lat + radiusKm / GeoCell.KM_PER_DEGREE);
+    }
+
+    /**
+     * Полуширина ограничивающего прямоугольника по долготе или {@code null},
+     * если круг накрывает полюс или пересекает 180-й меридиан.
+     */
+    public Double lonDelta() {
+        double maxAbsLat = Math.max(Math.abs(minLat()), Math.abs(maxLat()));
+        if (maxAbsLat >= 90) {
+            return null;
+        }
+        double delta = radiusKm / (GeoCell.KM_PER_DEGREE * Math.cos(Math.toRadians(maxAbsLat)));
+        if (lon - delta < -180 || lon + delta > 180) {
+            return null;
+        }
+        return delta;
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.event.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.github.benmanes.caffeine.cache.Cache;
+import ru.practicum.event.dto.VersionedEventDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Обертка над стандартным сериализатором DTO события. Для событий с версией JSON кодируется один раз,
+ * а в последующих ответах склеивается из готовых фрагментов и текущих confirmedRequests и views.
+ */
+class EventFragmentSerializer<T extends VersionedEventDto> extends StdSerializer<T>
+        implements ContextualSerializer, ResolvableSerializer {
+    private final JsonSerializer<Object> delegate;
+    private final Cache<Long, EventFragments> cache;
+
+    @SuppressWarnings("unchecked")
+    EventFragmentSerializer(Class<T> type, JsonSerializer<?> delegate, Cache<Long, EventFragments> cache) {
+        super(type);
+        this.delegate = (JsonSerializer<Object>) delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        ObjectCodec codec = gen.getCodec();
+        if (value.getVersion() == null || gen.getPrettyPrinter() != null || codec == null) {
+            delegate.serialize(value, gen, provider);
+            return;
+        }
+        EventFragments fragments = cache.getIfPresent(value.getId());
+        if (fragments == null || !fragments.matches(value)) {
+            byte[] json = encode(value, codec, provider);
+            fragments = EventFragments.split(value, json);
+            if (fragments == null) {
+                gen.writeRawValue(new Utf8Fragment(json));
+                return;
+            }
+            cache.put(value.getId(), fragments);
+        }
+        fragments.write(value, gen);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        if (delegate instanceof ContextualSerializer contextual) {
+            JsonSerializer<?> serializer = contextual.createContextual(provider, property);
+            if (serializer != delegate) {
+                return new EventFragmentSerializer<>(handledType(), serializer, cache);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (delegate instanceof ResolvableSerializer resolvable) {
+            resolvable.resolve(provider);
+        }
+    }
+
+    private byte[] encode(T value, ObjectCodec codec, SerializerProvider provider) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try (JsonGenerator fragmentGen = codec.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            delegate.serialize(value, fragmentGen, provider);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.event.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import ru.practicum.User.dto.UserDtoShort;
+import ru.practicum.category.dto.CategoryOutputDto;
+import ru.practicum.event.dto.VersionedEventDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * JSON события, разрезанный вокруг значений confirmedRequests и views. Фрагменты действительны,
+ * пока не изменились версия события и вложенные инициатор и категория.
+ */
+record EventFragments(long version,
+                      UserDtoShort initiator,
+                      CategoryOutputDto category,
+                      boolean confirmedFirst,
+                      Utf8Fragment head,
+                      Utf8Fragment middle,
+                      Utf8Fragment tail) {
+
+    private static final byte[] CONFIRMED_KEY = "\"confirmedRequests\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] VIEWS_KEY = "\"views\":".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Разрезает JSON события. Ключи ищутся как есть: кавычки внутри строковых значений экранированы,
+     * а во вложенных объектах таких полей нет. Возвращает null, если поля не найдены.
+     */
+    static EventFragments split(VersionedEventDto event, byte[] json) {
+        int confirmed = indexOf(json, CONFIRMED_KEY);
+        int views = indexOf(json, VIEWS_KEY);
+        if (confirmed < 0 || views < 0) {
+            return null;
+        }
+        boolean confirmedFirst = confirmed < views;
+        int firstStart = confirmedFirst ? confirmed + CONFIRMED_KEY.length : views + VIEWS_KEY.length;
+        int secondStart = confirmedFirst ? views + VIEWS_KEY.length : confirmed + CONFIRMED_KEY.length;
+        int firstEnd = valueEnd(json, firstStart);
+        int secondEnd = valueEnd(json, secondStart);
+        return new EventFragments(event.getVersion(), event.getInitiator(), event.getCategory(), confirmedFirst,
+                new Utf8Fragment(Arrays.copyOfRange(json, 0, firstStart)),
+                new Utf8Fragment(Arrays.copyOfRange(json, firstEnd, secondStart)),
+                new Utf8Fragment(Arrays.copyOfRange(json, secondEnd, json.length)));
+    }
+
+    boolean matches(VersionedEventDto event) {
+        return version == event.getVersion()
+                && Objects.equals(initiator, event.getInitiator())
+                && Objects.equals(category, event.getCategory());
+    }
+
+    void write(VersionedEventDto event, JsonGenerator gen) throws IOException {
+        gen.writeRawValue(head);
+        gen.writeRaw(number(confirmedFirst ? event.getConfirmedRequests() : event.getViews()));
+        gen.writeRaw(middle);
+        gen.writeRaw(number(confirmedFirst ? event.getViews() : event.getConfirmedRequests()));
+        gen.writeRaw(tail);
+    }
+
+    private static String number(Integer value) {
+        return value == null ? "null" : value.toString();
+    }
+
+    private static int indexOf(byte[] json, byte[] key) {
+        outer:
+        for (int i = 0; i <= json.length - key.length; i++) {
+            for (int j = 0; j < key.length; j++) {
+                if (json[i + j] != key[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static int valueEnd(byte[] json, int start) {
+        int end = start;
+        while (end < json.length && json[end] != ',' && json[end] != '}') {
+            end++;
+        }
+        return end;
+    }
+}
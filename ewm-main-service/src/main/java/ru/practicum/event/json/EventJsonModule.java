@@ -0,0 +1,40 @@
+package ru.practicum.event.json;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.event.dto.EventFullDto;
+import ru.practicum.event.dto.EventShortDto;
+
+/**
+ * Подключает кэш закодированного JSON для публичных DTO событий. Spring Boot регистрирует модуль
+ * в общем ObjectMapper, поэтому кэш работает и для MVC, и для реактивных контроллеров.
+ */
+@Component
+public class EventJsonModule extends SimpleModule {
+
+    public EventJsonModule(@Value("${ewm.events.json-cache-size:10000}") long cacheSize) {
+        super("EventJsonModule");
+        Cache<Long, EventFragments> shortCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        Cache<Long, EventFragments> fullCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                if (beanDesc.getBeanClass() == EventShortDto.class) {
+                    return new EventFragmentSerializer<>(EventShortDto.class, serializer, shortCache);
+                }
+                if (beanDesc.getBeanClass() == EventFullDto.class) {
+                    return new EventFragmentSerializer<>(EventFullDto.class, serializer, fullCache);
+                }
+                return serializer;
+            }
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.event.json;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Готовый фрагмент JSON в UTF-8. Генератор копирует байты в свой буфер без промежуточной строки.
+ * Экранирование фрагменту не нужно, поэтому варианты с кавычками построены через строковое значение.
+ */
+final class Utf8Fragment implements SerializableString {
+
+    private final byte[] bytes;
+
+    Utf8Fragment(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public String getValue() {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return quoted().asQuotedChars();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return bytes;
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return quoted().asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        return quoted().appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        return quoted().appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        if (offset + bytes.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+        return bytes.length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        return quoted().appendUnquoted(buffer, offset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        return quoted().writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(bytes);
+        return bytes.length;
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+        return quoted().putQuotedUTF8(buffer);
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            return -1;
+        }
+        buffer.put(bytes);
+        return bytes.length;
+    }
+
+    private SerializableString quoted() {
+        return new SerializedString(getValue());
+    }
+}
@@ -7,6 +7,7 @@ import ru.practicum.category.model.Category;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventNewDto;
 import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.dto.EventShortView;
 import ru.practicum.event.model.Event;
 
 import java.util.List;
@@ -22,6 +23,10 @@ public interface EventMapper {
     @Mapping(target = "initiator", source = "initiator")
     @Mapping(target = "category", source = "category")
     @Mapping(target = "confirmedRequests", constant = "0")
+    @Mapping(target = "views", constant = "0L")
+    @Mapping(target = "available", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "highDemand", constant = "false")
     @Mapping(target = "annotation", source = "eventRequestDto.annotation")
     @Mapping(target = "description", source = "eventRequestDto.description")
     @Mapping(target = "eventDate", source = "eventRequestDto.eventDate")
@@ -51,8 +56,20 @@ public interface EventMapper {
     @Mapping(target = "paid", source = "event.paid")
     @Mapping(target = "title", source = "event.title")
     @Mapping(target = "views", expression = "java(0)")
+    @Mapping(target = "version", ignore = true)
     EventShortDto toEventShortDto(Event event);
 
+    @Mapping(
+            target = "category",
+            expression = "java(new ru.practicum.category.dto.CategoryOutputDto(view.categoryId(), view.categoryName()))"
+    )
+    @Mapping(
+            target = "initiator",
+            expression = "java(new ru.practicum.User.dto.UserDtoShort(view.initiatorId(), view.initiatorName()))"
+    )
+    @Mapping(target = "views", expression = "java(0)")
+    EventShortDto toEventShortDto(EventShortView view);
+
     @Mapping(target = "id", source = "event.id")
     @Mapping(target = "annotation", source = "event.annotation")
     @Mapping(
@@ -75,9 +92,12 @@ public interface EventMapper {
     @Mapping(target = "state", source = "event.state")
     @Mapping(target = "title", source = "event.title")
     @Mapping(target = "views", source = "event.views")
+    @Mapping(target = "version", ignore = true)
     EventFullDto toEventFullDto(Event event);
 
     List<EventShortDto> toEventShortDtoList(List<Event> events);
 
+    List<EventShortDto> toEventShortDtoListFromViews(List<EventShortView> views);
+
     List<EventFullDto> toEventFullDtoList(List<Event> events);
 }
\ No newline at end of file
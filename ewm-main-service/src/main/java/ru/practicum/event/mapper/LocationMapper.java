@@ -1,6 +1,7 @@
 package ru.practicum.event.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import ru.practicum.event.dto.LocationDto;
 import ru.practicum.event.model.Location;
@@ -9,6 +10,7 @@ import ru.practicum.event.model.Location;
 public interface LocationMapper {
     LocationMapper INSTANCE = Mappers.getMapper(LocationMapper.class);
 
+    @Mapping(target = "geocell", ignore = true)
     Location toLocation(LocationDto dto);
 
     LocationDto toLocationDto(Location location);
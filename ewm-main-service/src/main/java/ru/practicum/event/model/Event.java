@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class Event {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -34,6 +35,7 @@ public class Event {
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
+    @Column(name = "confirmed_requests", updatable = false)
     private Integer confirmedRequests;
 
     @NotNull
@@ -68,7 +70,10 @@ public class Event {
     @Column(name = "published_on")
     private LocalDateTime publishedOn;
 
-    @Column(name = "participant_limit")
+    /**
+     * Меняется только через EventRepository.updateParticipantLimit: тот же запрос пересчитывает available.
+     */
+    @Column(name = "participant_limit", updatable = false)
     private Integer participantLimit;
 
     @NotNull
@@ -79,6 +84,24 @@ public class Event {
     @Column(name = "request_moderation", nullable = false)
     private Boolean requestModeration;
 
-    @Transient
-    private Integer views;
+    /**
+     * Просмотры на момент последней синхронизации с сервисом статистики (EventViewsSynchronizer).
+     * Публичные ответы берут живое значение из статистики, а административные и приватные отдают это.
+     */
+    @Column(name = "views", nullable = false)
+    private Long views;
+
+    @Column(name = "high_demand", nullable = false)
+    private Boolean highDemand;
+
+    /**
+     * Есть ли свободные места. Вычисляется только в SQL - в тех же запросах, что меняют confirmed_requests
+     * и participant_limit; новое событие получает значение по умолчанию TRUE.
+     */
+    @Column(name = "available", nullable = false, insertable = false, updatable = false)
+    private Boolean available;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package ru.practicum.event.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.event.geo.GeoCell;
 
 @Getter
 @Setter
@@ -10,10 +14,13 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "locations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations")
 public class Location {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "locations_seq")
+    @SequenceGenerator(name = "locations_seq", sequenceName = "locations_seq", allocationSize = 50)
     @Column(name = "location_id")
     private Long id;
 
@@ -24,4 +31,14 @@ public class Location {
     @NotNull
     @Column(nullable = false)
     private Float lon;
+
+    @JsonIgnore
+    @Column(name = "geocell")
+    private Long geocell;
+
+    @PrePersist
+    @PreUpdate
+    private void updateGeocell() {
+        geocell = GeoCell.encode(lat, lon);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+package ru.practicum.event.repository;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.JPAExpressions;
+import ru.practicum.event.geo.GeoCell;
+import ru.practicum.event.geo.GeoCircle;
+import ru.practicum.event.model.EventState;
+import ru.practicum.event.model.QEvent;
+import ru.practicum.event.model.QLocation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Условия поиска событий для публичного и административного API. Пустые фильтры не попадают в запрос,
+ * а порядок условий фиксирован, поэтому число различных JPQL-запросов остается небольшим.
+ */
+public final class EventPredicateBuilder {
+
+    private static final QEvent EVENT = QEvent.event;
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Collection<Long> initiators;
+    private Collection<EventState> states;
+    private Collection<Long> categories;
+    private boolean exactCategories;
+    private Boolean paid;
+    private String text;
+    private boolean onlyAvailable;
+    private GeoCircle near;
+
+    private EventPredicateBuilder() {
+    }
+
+    public static EventPredicateBuilder create() {
+        return new EventPredicateBuilder();
+    }
+
+    public EventPredicateBuilder eventDateBetween(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    public EventPredicateBuilder initiators(Collection<Long> initiators) {
+        this.initiators = initiators;
+        return this;
+    }
+
+    public EventPredicateBuilder states(Collection<EventState> states) {
+        this.states = states;
+        return this;
+    }
+
+    public EventPredicateBuilder categories(Collection<Long> categories) {
+        this.categories = categories;
+        return this;
+    }
+
+    /**
+     * Фильтр по категориям, в котором пустой список не совпадает ни с одним событием,
+     * как в административном поиске до перехода на Querydsl.
+     */
+    public EventPredicateBuilder exactCategories(Collection<Long> categories) {
+        this.categories = categories;
+        this.exactCategories = true;
+        return this;
+    }
+
+    public EventPredicateBuilder paid(Boolean paid) {
+        this.paid = paid;
+        return this;
+    }
+
+    public EventPredicateBuilder text(String text) {
+        this.text = text;
+        return this;
+    }
+
+    public EventPredicateBuilder onlyAvailable(boolean onlyAvailable) {
+        this.onlyAvailable = onlyAvailable;
+        return this;
+    }
+
+    public EventPredicateBuilder near(GeoCircle near) {
+        this.near = near;
+        return this;
+    }
+
+    public Predicate build() {
+        BooleanBuilder where = new BooleanBuilder();
+        if (states != null && !states.isEmpty()) {
+            where.and(EVENT.state.in(states));
+        }
+        if (onlyAvailable) {
+            where.and(EVENT.available.isTrue());
+        }
+        if (start != null) {
+            where.and(EVENT.eventDate.goe(start));
+        }
+        if (end != null) {
+            where.and(EVENT.eventDate.loe(end));
+        }
+        if (initiators != null && !initiators.isEmpty()) {
+            where.and(EVENT.initiator.id.in(initiators));
+        }
+        if (categories != null && (exactCategories || !categories.isEmpty())) {
+            where.and(EVENT.category.id.in(categories));
+        }
+        if (paid != null) {
+            where.and(EVENT.paid.eq(paid));
+        }
+        if (text != null && !text.isBlank()) {
+            where.and(EVENT.annotation.containsIgnoreCase(text)
+                    .or(EVENT.description.containsIgnoreCase(text)));
+        }
+        if (near != null) {
+            where.and(nearPredicate(near));
+        }
+        return where;
+    }
+
+    /**
+     * Подкоренное выражение формулы гаверсинусов от центра круга до места события, вычисляемое в базе.
+     * Координаты центра передаются параметрами, чтобы текст запроса не зависел от точки поиска и план
+     * переиспользовался. Параметры приводятся к Double: без приведения Hibernate выводит их тип из колонки
+     * Float. Постоянные множители остаются литералами double, иначе база считает их точными числами.
+     */
+    public static NumberExpression<Double> haversine(GeoCircle circle) {
+        return haversine(circle, EVENT.location);
+    }
+
+    private static NumberExpression<Double> haversine(GeoCircle circle, QLocation location) {
+        double radians = Math.PI / 180;
+        String template = "power(sin(({0} - cast({2} as Double)) * " + literal(radians / 2) + "), 2) + "
+                + "cast({3} as Double) * cos({0} * " + literal(radians) + ") * "
+                + "power(sin(({1} - cast({4} as Double)) * " + literal(radians / 2) + "), 2)";
+        return Expressions.numberTemplate(Double.class, template, location.lat, location.lon,
+                Expressions.constant(circle.lat()), Expressions.constant(Math.cos(circle.lat() * radians)),
+                Expressions.constant(circle.lon()));
+    }
+
+    private static String literal(double value) {
+        return BigDecimal.valueOf(value).toPlainString() + "D";
+    }
+
+    /**
+     * Места внутри круга выбираются подзапросом по индексу геоячеек, а события - по location_id,
+     * поэтому план строится от locations_geocell_idx, а не от индексов по дате события.
+     * Число диапазонов ячеек дополняется до максимального повтором последнего, как списки в IN.
+     */
+    private static Predicate nearPredicate(GeoCircle circle) {
+        QLocation location = new QLocation("nearLocation");
+        BooleanBuilder near = new BooleanBuilder();
+        BooleanBuilder cells = new BooleanBuilder();
+        List<GeoCell.Range> ranges = circle.cellRanges();
+        for (int i = 0; !ranges.isEmpty() && i < GeoCell.MAX_RANGES; i++) {
+            GeoCell.Range range = ranges.get(Math.min(i, ranges.size() - 1));
+            cells.or(location.geocell.between(range.from(), range.to()));
+        }
+        near.and(cells);
+        near.and(location.lat.between((float) circle.minLat(), (float) circle.maxLat()));
+        Double lonDelta = circle.lonDelta();
+        if (lonDelta != null) {
+            near.and(location.lon.between((float) (circle.lon() - lonDelta), (float) (circle.lon() + lonDelta)));
+        }
+        near.and(haversine(circle, location).loe(circle.haversineLimit()));
+        return EVENT.location.id.in(JPAExpressions.select(location.id).from(location).where(near));
+    }
+}
@@ -1,9 +1,15 @@
 package ru.practicum.event.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.User.model.User;
-import ru.practicum.category.model.Category;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.event.dto.EventConfirmedRequests;
+import ru.practicum.event.dto.EventShortView;
 import ru.practicum.event.model.Event;
 import ru.practicum.event.model.EventState;
 
@@ -11,16 +17,120 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
     boolean existsByCategoryId(Long catId);
 
-    List<Event> findByInitiatorId(Long initiatorId, Pageable pageable);
-
-    List<Event> findByInitiatorInAndStateInAndCategoryInAndEventDateAfterAndEventDateBeforeOrderByIdAsc(
-            List<User> initiators, List<EventState> states, List<Category> categories,
-            LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query("""
+            SELECT new ru.practicum.event.dto.EventShortView(e.id, i.id, i.name, c.id, c.name, e.confirmedRequests,
+                   e.title, e.annotation, e.eventDate, e.paid, e.version)
+            FROM Event e
+            JOIN e.initiator i
+            JOIN e.category c
+            WHERE i.id = :initiatorId
+            ORDER BY e.id
+            """)
+    List<EventShortView> findShortViewsByInitiatorId(@Param("initiatorId") Long initiatorId, Pageable pageable);
 
     Optional<Event> findByIdAndState(Long eventId, EventState state);
 
     List<Event> findByIdIn(List<Long> eventIds);
+
+    List<Event> findByHighDemandTrueAndStateAndEventDateAfter(EventState state, LocalDateTime after);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :eventId")
+    Optional<Event> findForUpdateById(@Param("eventId") Long eventId);
+
+    @Query("SELECT e.id FROM Event e WHERE e.state = :state AND e.eventDate > :after AND e.id > :afterId ORDER BY e.id")
+    List<Long> findIdsByStateAndEventDateAfter(@Param("state") EventState state,
+                                               @Param("after") LocalDateTime after,
+                                               @Param("afterId") long afterId,
+                                               Pageable pageable);
+
+    @Query("""
+            SELECT new ru.practicum.event.dto.EventConfirmedRequests(e.id, e.confirmedRequests)
+            FROM Event e
+            WHERE e.state = :state AND e.eventDate > :after AND e.highDemand = false AND e.id > :afterId
+            ORDER BY e.id
+            """)
+    List<EventConfirmedRequests> findConfirmedRequestsForReconciliation(@Param("state") EventState state,
+                                                                        @Param("after") LocalDateTime after,
+                                                                        @Param("afterId") long afterId,
+                                                                        Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Event e
+            SET e.confirmedRequests = :actual,
+                e.available = CASE WHEN e.participantLimit = 0 OR :actual < e.participantLimit
+                                   THEN true ELSE false END
+            WHERE e.id = :eventId AND e.confirmedRequests = :expected
+            """)
+    int reconcileConfirmedRequests(@Param("eventId") Long eventId,
+                                   @Param("expected") int expected,
+                                   @Param("actual") int actual);
+
+    @Query("SELECT e.confirmedRequests FROM Event e WHERE e.id = :eventId")
+    Integer findConfirmedRequests(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("""
+            UPDATE Event e
+            SET e.confirmedRequests = e.confirmedRequests + 1,
+                e.available = CASE WHEN e.participantLimit = 0 OR e.confirmedRequests + 1 < e.participantLimit
+                                   THEN true ELSE false END
+            WHERE e.id = :eventId AND (e.participantLimit = 0 OR e.confirmedRequests < e.participantLimit)
+            """)
+    int reserveSeat(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("""
+            UPDATE Event e
+            SET e.confirmedRequests = e.confirmedRequests + :count,
+                e.available = CASE WHEN e.participantLimit = 0 OR e.confirmedRequests + :count < e.participantLimit
+                                   THEN true ELSE false END
+            WHERE e.id = :eventId AND e.confirmedRequests = :expected
+            """)
+    int reserveSeats(@Param("eventId") Long eventId, @Param("expected") int expected, @Param("count") int count);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Event e
+            SET e.confirmedRequests = e.confirmedRequests + :delta,
+                e.available = CASE WHEN e.participantLimit = 0 OR e.confirmedRequests + :delta < e.participantLimit
+                                   THEN true ELSE false END
+            WHERE e.id = :eventId
+            """)
+    int addConfirmedRequests(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Event e
+            SET e.confirmedRequests = :confirmed,
+                e.available = CASE WHEN e.participantLimit = 0 OR :confirmed < e.participantLimit
+                                   THEN true ELSE false END
+            WHERE e.id = :eventId
+            """)
+    int setConfirmedRequests(@Param("eventId") Long eventId, @Param("confirmed") int confirmed);
+
+    @Modifying
+    @Query("""
+            UPDATE Event e
+            SET e.confirmedRequests = e.confirmedRequests - 1, e.available = true
+            WHERE e.id = :eventId AND e.confirmedRequests > 0
+            """)
+    int releaseSeat(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("""
+            UPDATE Event e
+            SET e.participantLimit = :participantLimit,
+                e.available = CASE WHEN :participantLimit = 0 OR e.confirmedRequests < :participantLimit
+                                   THEN true ELSE false END
+            WHERE e.id = :eventId
+            """)
+    int updateParticipantLimit(@Param("eventId") Long eventId, @Param("participantLimit") int participantLimit);
 }
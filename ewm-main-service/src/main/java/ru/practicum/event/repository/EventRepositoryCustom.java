@@ -0,0 +1,23 @@
+package ru.practicum.event.repository;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.event.dto.EventShortView;
+import ru.practicum.event.geo.GeoCircle;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventSort;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface EventRepositoryCustom {
+
+    List<Event> findAllFetched(Predicate predicate, Pageable pageable);
+
+    Stream<Event> streamFetched(Predicate predicate, int fetchSize);
+
+    /**
+     * Страница событий в порядке sort; без sort события рядом с near идут по удаленности, остальные - по id.
+     */
+    List<EventShortView> findShortViews(Predicate predicate, EventSort sort, GeoCircle near, Pageable pageable);
+}
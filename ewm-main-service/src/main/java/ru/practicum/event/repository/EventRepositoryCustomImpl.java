@@ -0,0 +1,87 @@
+package ru.practicum.event.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.event.dto.EventShortView;
+import ru.practicum.event.geo.GeoCircle;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventSort;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static ru.practicum.User.model.QUser.user;
+import static ru.practicum.category.model.QCategory.category;
+import static ru.practicum.event.model.QEvent.event;
+
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    public EventRepositoryCustomImpl(EntityManager entityManager) {
+        this.queryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    @Override
+    public List<Event> findAllFetched(Predicate predicate, Pageable pageable) {
+        return queryFactory.selectFrom(event)
+                .join(event.initiator).fetchJoin()
+                .join(event.category).fetchJoin()
+                .join(event.location).fetchJoin()
+                .where(predicate)
+                .orderBy(event.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    @Override
+    public Stream<Event> streamFetched(Predicate predicate, int fetchSize) {
+        return queryFactory.selectFrom(event)
+                .join(event.initiator).fetchJoin()
+                .join(event.category).fetchJoin()
+                .join(event.location).fetchJoin()
+                .where(predicate)
+                .orderBy(event.id.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .stream();
+    }
+
+    @Override
+    public List<EventShortView> findShortViews(Predicate predicate, EventSort sort, GeoCircle near,
+                                               Pageable pageable) {
+        return queryFactory.select(Projections.constructor(EventShortView.class,
+                        event.id, user.id, user.name, category.id, category.name,
+                        event.confirmedRequests, event.title, event.annotation, event.eventDate, event.paid,
+                        event.version))
+                .from(event)
+                .join(event.initiator, user)
+                .join(event.category, category)
+                .where(predicate)
+                .orderBy(orderBy(sort, near))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    private static OrderSpecifier<?>[] orderBy(EventSort sort, GeoCircle near) {
+        if (sort == EventSort.EVENT_DATE) {
+            return new OrderSpecifier<?>[]{event.eventDate.asc(), event.id.asc()};
+        }
+        if (sort == EventSort.VIEWS) {
+            return new OrderSpecifier<?>[]{event.views.desc(), event.id.asc()};
+        }
+        if (near != null) {
+            return new OrderSpecifier<?>[]{EventPredicateBuilder.haversine(near).asc(), event.id.asc()};
+        }
+        return new OrderSpecifier<?>[]{event.id.asc()};
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.compilation.service.CompilationsChangedEvent;
+import ru.practicum.event.dto.EventConfirmedRequests;
+import ru.practicum.event.model.EventState;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.request.service.RequestCountService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сверяет счетчик confirmed_requests предстоящих событий с фактическим числом подтвержденных заявок.
+ * События с режимом высокого спроса сверяются в {@link HighDemandSeats} при получении аренды.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfirmedRequestsReconciler {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final EventRepository eventRepository;
+    private final RequestCountService requestCountService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Scheduled(fixedDelayString = "${ewm.requests.reconcile-interval-ms:3600000}",
+            initialDelayString = "${ewm.requests.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest batch = PageRequest.of(0, BATCH_SIZE);
+        long afterId = 0;
+        List<Long> fixed = new ArrayList<>();
+        List<EventConfirmedRequests> events;
+        do {
+            events = eventRepository.findConfirmedRequestsForReconciliation(EventState.PUBLISHED, now, afterId, batch);
+            if (events.isEmpty()) {
+                break;
+            }
+            Map<Long, Long> counts = requestCountService.countConfirmed(events.stream()
+                    .map(EventConfirmedRequests::id).toList());
+            for (EventConfirmedRequests event : events) {
+                int actual = Math.toIntExact(counts.getOrDefault(event.id(), 0L));
+                if (actual != event.confirmedRequests()) {
+                    log.warn("Счетчик подтвержденных заявок события с id = {} расходится с заявками: {} вместо {}.",
+                            event.id(), event.confirmedRequests(), actual);
+                    if (eventRepository.reconcileConfirmedRequests(event.id(), event.confirmedRequests(), actual) > 0) {
+                        fixed.add(event.id());
+                    }
+                }
+            }
+            afterId = events.getLast().id();
+        } while (events.size() == BATCH_SIZE);
+        if (!fixed.isEmpty()) {
+            eventPublisher.publishEvent(new CompilationsChangedEvent("сверка подтвержденных заявок", fixed));
+        }
+        log.info("Сверка подтвержденных заявок завершена, исправлено событий: {}.", fixed.size());
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.event.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.types.Predicate;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.event.dto.EventFullDto;
+import ru.practicum.event.mapper.EventMapper;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.export.ExportFormat;
+import ru.practicum.request.service.RequestCountService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static ru.practicum.event.dto.EventFullDto.DATE_TIME_FORMAT;
+
+/**
+ * Потоковая выгрузка событий для администратора. События читаются курсором и пишутся пачками,
+ * после каждой пачки контекст персистентности очищается.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventExporter {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String CSV_HEADER = "id,title,state,categoryId,categoryName,initiatorId,initiatorName,"
+            + "eventDate,createdOn,publishedOn,participantLimit,confirmedRequests,paid,requestModeration,views,"
+            + "lat,lon\n";
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
+
+    private final EventRepository eventRepository;
+    private final EventMapper eventMapper;
+    private final RequestCountService requestCountService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    public void export(Predicate predicate, ExportFormat format, OutputStream out) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<Event> events = eventRepository.streamFetched(predicate, BATCH_SIZE)) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                if (format == ExportFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.flush();
+                }
+                Iterator<Event> iterator = events.iterator();
+                List<Event> batch = new ArrayList<>(BATCH_SIZE);
+                long exported = 0;
+                while (iterator.hasNext()) {
+                    batch.add(iterator.next());
+                    if (batch.size() == BATCH_SIZE) {
+                        exported += write(batch, format, writer);
+                    }
+                }
+                exported += write(batch, format, writer);
+                log.info("Выгружено событий: {}.", exported);
+            } catch (IOException e) {
+                log.warn("Выгрузка событий прервана: {}", e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private int write(List<Event> batch, ExportFormat format, Writer writer) throws IOException {
+        int size = batch.size();
+        if (size == 0) {
+            return 0;
+        }
+        Map<Long, Long> confirmed = requestCountService.countConfirmed(batch.stream().map(Event::getId).toList());
+        for (Event event : batch) {
+            EventFullDto dto = eventMapper.toEventFullDto(event);
+            dto.setConfirmedRequests(Math.toIntExact(confirmed.getOrDefault(dto.getId(), 0L)));
+            writer.write(format == ExportFormat.CSV ? toCsv(dto) : objectMapper.writeValueAsString(dto));
+            writer.write('\n');
+        }
+        writer.flush();
+        batch.clear();
+        entityManager.clear();
+        return size;
+    }
+
+    private static String toCsv(EventFullDto event) {
+        return String.join(",",
+                String.valueOf(event.getId()),
+                escape(event.getTitle()),
+                String.valueOf(event.getState()),
+                String.valueOf(event.getCategory().getId()),
+                escape(event.getCategory().getName()),
+                String.valueOf(event.getInitiator().getId()),
+                escape(event.getInitiator().getName()),
+                format(event.getEventDate()),
+                format(event.getCreatedOn()),
+                format(event.getPublishedOn()),
+                String.valueOf(event.getParticipantLimit()),
+                String.valueOf(event.getConfirmedRequests()),
+                String.valueOf(event.getPaid()),
+                String.valueOf(event.getRequestModeration()),
+                String.valueOf(event.getViews()),
+                String.valueOf(event.getLocation().getLat()),
+                String.valueOf(event.getLocation().getLon()));
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime == null ? "" : FORMATTER.format(dateTime);
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
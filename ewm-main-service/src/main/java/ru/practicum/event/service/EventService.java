@@ -1,13 +1,17 @@
 package ru.practicum.event.service;
 
-import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.etag.Tagged;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventNewDto;
 import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.dto.EventShortView;
 import ru.practicum.event.dto.EventUpdateDto;
 import ru.practicum.event.model.EventSort;
+import ru.practicum.export.ExportFormat;
 import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.request.model.ParticipationRequestStatus;
 
 import java.util.List;
 import java.util.Map;
@@ -21,7 +25,11 @@ public interface EventService {
 
     EventFullDto updateEvent(Long userId, Long eventId, EventUpdateDto eventUpdateDto);
 
-    List<ParticipationRequestDto> getRequestsByEventId(Long userId, Long eventId);
+    List<ParticipationRequestDto> getRequestsByEventId(Long userId, Long eventId, ParticipationRequestStatus status,
+                                                       long afterId, int size);
+
+    StreamingResponseBody exportRequestsByEventId(Long userId, Long eventId, ParticipationRequestStatus status,
+                                                  ExportFormat format);
 
     Map<String, List<ParticipationRequestDto>> approveRequests(Long userId, Long eventId,
                                                                EventRequestStatusUpdateRequest requestUpdateDto);
@@ -29,12 +37,23 @@ public interface EventService {
     List<EventFullDto> getAllByAdmin(List<Long> users, List<String> states, List<Long> categories,
                                      String rangeStart, String rangeEnd, int from, int size);
 
-    EventFullDto approveEventByAdmin(Long eventId, EventUpdateDto eventUpdateDto);
+    StreamingResponseBody exportByAdmin(List<Long> users, List<String> states, List<Long> categories,
+                                        String rangeStart, String rangeEnd, ExportFormat format);
 
-    List<EventShortDto> getAllPublic(String text, List<Long> categories, Boolean paid,
-                                     String rangeStart, String rangeEnd, boolean onlyAvailable,
-                                     EventSort sort, int from, int size,
-                                     HttpServletRequest request);
+    EventFullDto approveEventByAdmin(Long eventId, EventUpdateDto eventUpdateDto);
 
-    EventFullDto getEventByIdPublic(Long eventId, HttpServletRequest request);
-}
\ No newline at end of file
+    Tagged<List<EventShortDto>> getAllPublic(String text, List<Long> categories, Boolean paid,
+                                             String rangeStart, String rangeEnd, boolean onlyAvailable,
+                                             EventSort sort, int from, int size,
+                                             Double lat, Double lon, Double radiusKm);
+
+    Tagged<EventFullDto> getEventByIdPublic(Long eventId);
+
+    /**
+     * Публичный поиск событий без обращения к сервису статистики.
+     */
+    List<EventShortView> findPublic(String text, List<Long> categories, Boolean paid,
+                                    String rangeStart, String rangeEnd, boolean onlyAvailable,
+                                    EventSort sort, int from, int size,
+                                    Double lat, Double lon, Double radiusKm);
+}
@@ -1,32 +1,41 @@
 package ru.practicum.event.service;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
-import jakarta.servlet.http.HttpServletRequest;
+import com.querydsl.core.types.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.User.model.User;
 import ru.practicum.User.repository.UserRepository;
 import ru.practicum.category.model.Category;
-import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.category.service.CategoryCatalog;
+import ru.practicum.compilation.service.CompilationsChangedEvent;
+import ru.practicum.etag.EntityTag;
+import ru.practicum.etag.Tagged;
 import ru.practicum.event.dto.*;
+import ru.practicum.event.geo.GeoCircle;
 import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.*;
+import ru.practicum.event.repository.EventPredicateBuilder;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.event.repository.LocationRepository;
 import ru.practicum.exception.ConflictException;
+import ru.practicum.export.ExportFormat;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.ValidationException;
 import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.request.dto.ParticipationRequestView;
+import ru.practicum.request.dto.RequestStatusSummary;
 import ru.practicum.request.mapper.ParticipationRequestMapper;
-import ru.practicum.request.model.ParticipationRequest;
 import ru.practicum.request.model.ParticipationRequestStatus;
 import ru.practicum.request.repository.ParticipationRequestRepository;
+import ru.practicum.request.service.ParticipationRequestExporter;
+import ru.practicum.request.service.RequestCountService;
 import ru.practicum.stat.service.StatsService;
 
 import java.time.LocalDateTime;
@@ -39,31 +48,39 @@ import java.util.*;
 @RequiredArgsConstructor
 public class EventServiceImpl implements EventService {
 
-    private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final LocationRepository locationRepository;
     private final ParticipationRequestRepository participationRequestRepository;
-    private final EntityManager entityManager;
     private final StatsService statsService;
+    private final HighDemandSeats highDemandSeats;
+    private final ParticipationRequestExporter participationRequestExporter;
+    private final EventExporter eventExporter;
+    private final RequestCountService requestCountService;
+    private final ApplicationEventPublisher eventPublisher;
     private final EventMapper eventMapper;
     private final ParticipationRequestMapper participationRequestMapper;
 
     private static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN);
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final Set<ParticipationRequestStatus> PENDING_STATUS = EnumSet.of(ParticipationRequestStatus.PENDING);
+    private static final Set<ParticipationRequestStatus> REJECTABLE_STATUSES = EnumSet.complementOf(
+            EnumSet.of(ParticipationRequestStatus.CONFIRMED));
 
     @Override
     @Transactional(readOnly = true)
     public List<EventShortDto> getAllEvents(Long userId, int from, int size) {
         int startPage = from > 0 ? (from / size) : 0;
         Pageable pageable = PageRequest.of(startPage, size);
-        List<Event> events = eventRepository.findByInitiatorId(userId, pageable);
+        List<EventShortView> events = eventRepository.findShortViewsByInitiatorId(userId, pageable);
         if (events.isEmpty()) {
             log.info("Списка событий у пользователя с id = {} не найдено.", userId);
             return new ArrayList<>();
         }
         log.info("Получение списка событий пользователя с id = {}.", userId);
-        return eventMapper.toEventShortDtoList(events);
+        return eventMapper.toEventShortDtoListFromViews(events);
     }
 
     @Override
@@ -71,7 +88,7 @@ public class EventServiceImpl implements EventService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с id = {} не существует." + userId));
         Long catId = eventRequestDto.getCategory();
-        Category category = categoryRepository.findById(catId)
+        Category category = categoryCatalog.findCategory(catId)
                 .orElseThrow(() -> new ValidationException("Категории с id = {} не существует." + catId));
         Location location = eventRequestDto.getLocation();
         locationRepository.save(location);
@@ -116,7 +133,7 @@ public class EventServiceImpl implements EventService {
         }
         if (eventUpdateDto.getCategory() != null) {
             Long catId = eventUpdateDto.getCategory();
-            Category category = categoryRepository.findById(catId)
+            Category category = categoryCatalog.findCategory(catId)
                     .orElseThrow(() -> new ValidationException("Категории с id = {} не существует." + catId));
             oldEvent.setCategory(category);
         }
@@ -125,9 +142,11 @@ public class EventServiceImpl implements EventService {
         Optional.ofNullable(eventUpdateDto.getDescription()).ifPresent(oldEvent::setDescription);
         Optional.ofNullable(eventUpdateDto.getEventDate()).ifPresent(oldEvent::setEventDate);
         Optional.ofNullable(eventUpdateDto.getLocation()).ifPresent(oldEvent::setLocation);
-        Optional.ofNullable(eventUpdateDto.getParticipantLimit()).ifPresent(oldEvent::setParticipantLimit);
+        Optional.ofNullable(eventUpdateDto.getParticipantLimit())
+                .ifPresent(limit -> updateParticipantLimit(oldEvent, limit));
         Optional.ofNullable(eventUpdateDto.getPaid()).ifPresent(oldEvent::setPaid);
         Optional.ofNullable(eventUpdateDto.getRequestModeration()).ifPresent(oldEvent::setRequestModeration);
+        Optional.ofNullable(eventUpdateDto.getHighDemand()).ifPresent(oldEvent::setHighDemand);
 
         if (eventUpdateDto.getStateAction() != null) {
             if (eventUpdateDto.getStateAction() == StateAction.SEND_TO_REVIEW) {
@@ -137,12 +156,48 @@ public class EventServiceImpl implements EventService {
             }
         }
         log.info("Событие с id = {} обновлено.", eventId);
+        eventPublisher.publishEvent(new CompilationsChangedEvent("обновление события " + eventId, List.of(eventId)));
         return eventMapper.toEventFullDto(oldEvent);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ParticipationRequestDto> getRequestsByEventId(Long userId, Long eventId) {
+    public List<ParticipationRequestDto> getRequestsByEventId(Long userId,
+                                                              Long eventId,
+                                                              ParticipationRequestStatus status,
+                                                              long afterId,
+                                                              int size) {
+        checkEventInitiator(userId, eventId);
+        List<ParticipationRequestView> requests = participationRequestRepository.findViewsByEventId(eventId,
+                statusFilter(status), afterId, PageRequest.of(0, size));
+        if (requests.isEmpty()) {
+            log.info("Заявок на участие в мероприятии с id = {} нет.", eventId);
+            return new ArrayList<>();
+        }
+        log.info("Получение списка заявок на участие в мероприятии с id {}.", eventId);
+        return requests.stream()
+                .map(participationRequestMapper::toParticipationRequestDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StreamingResponseBody exportRequestsByEventId(Long userId,
+                                                         Long eventId,
+                                                         ParticipationRequestStatus status,
+                                                         ExportFormat format) {
+        checkEventInitiator(userId, eventId);
+        Set<ParticipationRequestStatus> statuses = statusFilter(status);
+        log.info("Выгрузка заявок на участие в мероприятии с id {} в формате {}.", eventId, format);
+        return out -> participationRequestExporter.export(eventId, statuses, format, out);
+    }
+
+    private void updateParticipantLimit(Event event, int participantLimit) {
+        eventRepository.updateParticipantLimit(event.getId(), participantLimit);
+        event.setParticipantLimit(participantLimit);
+    }
+
+    private void checkEventInitiator(Long userId, Long eventId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с id = {} не существует." + userId));
         Event event = eventRepository.findById(eventId)
@@ -150,13 +205,10 @@ public class EventServiceImpl implements EventService {
         if (!event.getInitiator().getId().equals(user.getId())) {
             throw new ConflictException("Пользователь не является инициатором этого события.");
         }
-        List<ParticipationRequest> requests = participationRequestRepository.findByEventId(eventId);
-        if (requests.isEmpty()) {
-            log.info("Заявок на участие в мероприятии с id = {} нет.", eventId);
-            return new ArrayList<>();
-        }
-        log.info("Получение списка заявок на участие в мероприятии с id {}.", eventId);
-        return participationRequestMapper.toParticipationRequestDtoList(requests);
+    }
+
+    private static Set<ParticipationRequestStatus> statusFilter(ParticipationRequestStatus status) {
+        return status == null ? EnumSet.allOf(ParticipationRequestStatus.class) : EnumSet.of(status);
     }
 
     @Override
@@ -172,8 +224,7 @@ public class EventServiceImpl implements EventService {
             throw new ConflictException("Пользователь не является инициатором этого события.");
         }
 
-        List<ParticipationRequest> requests = participationRequestRepository
-                .findRequestByIdIn(requestUpdateDto.getRequestIds());
+        List<Long> requestIds = requestUpdateDto.getRequestIds().stream().distinct().toList();
 
         if (Boolean.TRUE.equals(event.getRequestModeration())
                 && event.getParticipantLimit().equals(event.getConfirmedRequests())
@@ -182,67 +233,115 @@ public class EventServiceImpl implements EventService {
             throw new ConflictException("Лимит заявок на участие в событии исчерпан.");
         }
 
-        boolean verified = requests.stream().allMatch(r -> r.getEvent().getId().equals(eventId));
-        if (!verified) {
+        long foreign = 0;
+        long confirmed = 0;
+        long notPending = 0;
+        for (List<Long> chunk : chunks(requestIds)) {
+            RequestStatusSummary summary = participationRequestRepository.summarizeByIdIn(eventId, chunk);
+            foreign += summary.foreign();
+            confirmed += summary.confirmed();
+            notPending += summary.notPending();
+        }
+        if (foreign > 0) {
             throw new ConflictException("Список запросов не относятся к одному событию.");
         }
 
         Map<String, List<ParticipationRequestDto>> requestMap = new HashMap<>();
 
         if (requestUpdateDto.getStatus() == ParticipationRequestStatus.REJECTED) {
-            if (requests.stream().anyMatch(r -> r.getStatus() == ParticipationRequestStatus.CONFIRMED)) {
+            if (confirmed > 0) {
                 throw new ConflictException(
                         "Запрос на установление статуса <ОТМЕНЕНА>. Подтвержденные заявки нельзя отменить."
                 );
             }
             log.info("Запрос на отклонение заявки подтвержден.");
-            requests.forEach(r -> r.setStatus(ParticipationRequestStatus.REJECTED));
-            List<ParticipationRequestDto> rejectedRequests = requests.stream()
-                    .map(participationRequestMapper::toParticipationRequestDto)
-                    .toList();
-            requestMap.put("rejectedRequests", rejectedRequests);
+            List<ParticipationRequestView> requests = findRequestViews(requestIds);
+            updateStatus(requests, REJECTABLE_STATUSES, ParticipationRequestStatus.REJECTED);
+            requestMap.put("rejectedRequests", toDtos(requests, ParticipationRequestStatus.REJECTED));
 
         } else {
-            if (requests.stream().anyMatch(r -> r.getStatus() != ParticipationRequestStatus.PENDING)) {
+            if (notPending > 0) {
                 throw new ConflictException(
                         "Запрос на установление статуса <ПОДТВЕРЖДЕНА>. Заявки должны быть со статусом <В ОЖИДАНИИ>."
                 );
             }
-            long limit = event.getParticipantLimit() - event.getConfirmedRequests();
+            List<ParticipationRequestView> requests = findRequestViews(requestIds);
+            int limit = Boolean.TRUE.equals(event.getHighDemand()) && highDemandSeats.isActive()
+                    ? highDemandSeats.reserve(event.getId(), event.getParticipantLimit(), requests.size())
+                    : reserveSeats(event, requests.size());
             if (limit <= 0) {
                 log.info("Свободных мест для подтверждения нет. Все заявки будут отклонены.");
-                requests.forEach(r -> r.setStatus(ParticipationRequestStatus.REJECTED));
-                List<ParticipationRequestDto> rejectedAll = requests.stream()
-                        .map(participationRequestMapper::toParticipationRequestDto)
-                        .toList();
-                requestMap.put("rejectedRequests", rejectedAll);
+                updateStatus(requests, PENDING_STATUS, ParticipationRequestStatus.REJECTED);
+                requestMap.put("rejectedRequests", toDtos(requests, ParticipationRequestStatus.REJECTED));
                 return requestMap;
             }
-            List<ParticipationRequest> confirmedList = requests.stream()
-                    .limit(limit)
-                    .peek(r -> r.setStatus(ParticipationRequestStatus.CONFIRMED))
-                    .toList();
+            List<ParticipationRequestView> confirmedList = requests.subList(0, limit);
+            updateStatus(confirmedList, PENDING_STATUS, ParticipationRequestStatus.CONFIRMED);
             log.info("Заявки на участие со статусом <ПОДТВЕРЖДЕНА> обработаны.");
+            eventPublisher.publishEvent(new CompilationsChangedEvent("подтверждение заявок события " + eventId,
+                    List.of(eventId)));
+            requestMap.put("confirmedRequests", toDtos(confirmedList, ParticipationRequestStatus.CONFIRMED));
 
-            List<ParticipationRequestDto> confirmedRequests = confirmedList.stream()
-                    .map(participationRequestMapper::toParticipationRequestDto)
-                    .toList();
-            requestMap.put("confirmedRequests", confirmedRequests);
-
-            List<ParticipationRequest> rejectedList = requests.stream()
-                    .skip(limit)
-                    .peek(r -> r.setStatus(ParticipationRequestStatus.REJECTED))
-                    .toList();
+            List<ParticipationRequestView> rejectedList = requests.subList(limit, requests.size());
+            updateStatus(rejectedList, PENDING_STATUS, ParticipationRequestStatus.REJECTED);
             log.info("Часть заявок сохранена со статусом <ОТМЕНЕНА>, в связи с превышением лимита.");
+            requestMap.put("rejectedRequests", toDtos(rejectedList, ParticipationRequestStatus.REJECTED));
+        }
+        return requestMap;
+    }
 
-            List<ParticipationRequestDto> rejectedRequests = rejectedList.stream()
-                    .map(participationRequestMapper::toParticipationRequestDto)
-                    .toList();
-            requestMap.put("rejectedRequests", rejectedRequests);
+    private List<ParticipationRequestView> findRequestViews(List<Long> requestIds) {
+        List<ParticipationRequestView> requests = new ArrayList<>(requestIds.size());
+        for (List<Long> chunk : chunks(requestIds)) {
+            requests.addAll(participationRequestRepository.findViewsByIdIn(chunk));
+        }
+        requests.sort(Comparator.comparing(ParticipationRequestView::created)
+                .thenComparing(ParticipationRequestView::id));
+        return requests;
+    }
 
-            event.setConfirmedRequests(confirmedList.size() + event.getConfirmedRequests());
+    private void updateStatus(List<ParticipationRequestView> requests,
+                              Set<ParticipationRequestStatus> expected,
+                              ParticipationRequestStatus status) {
+        List<Long> ids = requests.stream().map(ParticipationRequestView::id).toList();
+        int updated = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            updated += participationRequestRepository.updateStatus(chunk, expected, status);
+        }
+        if (updated != ids.size()) {
+            throw new ConflictException("Статус заявок изменился во время обработки, повторите запрос.");
+        }
+    }
+
+    private List<ParticipationRequestDto> toDtos(List<ParticipationRequestView> requests,
+                                                 ParticipationRequestStatus status) {
+        return requests.stream()
+                .map(request -> participationRequestMapper.toParticipationRequestDto(request, status))
+                .toList();
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    private int reserveSeats(Event event, int wanted) {
+        while (true) {
+            Integer confirmed = eventRepository.findConfirmedRequests(event.getId());
+            int granted = event.getParticipantLimit() == 0
+                    ? wanted
+                    : Math.min(wanted, event.getParticipantLimit() - confirmed);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (eventRepository.reserveSeats(event.getId(), confirmed, granted) == 1) {
+                return granted;
+            }
+            log.debug("Число подтвержденных заявок события с id = {} изменилось, повторная попытка.", event.getId());
         }
-        return requestMap;
     }
 
     @Override
@@ -254,63 +353,70 @@ public class EventServiceImpl implements EventService {
                                             String rangeEnd,
                                             int from,
                                             int size) {
+        PageRequest pageRequest = PageRequest.of(from / size, size);
+        Predicate predicate = adminPredicate(users, states, categories, rangeStart, rangeEnd);
+        List<Event> events = eventRepository.findAllFetched(predicate, pageRequest);
+        if (events.isEmpty()) {
+            log.info("По данным параметрам не нашлось ни одного события");
+            return new ArrayList<>();
+        }
+        Map<Long, Long> confirmed = requestCountService.countConfirmed(events.stream().map(Event::getId).toList());
+        log.info("Получен список событий по заданным параметрам");
+        return events.stream()
+                .map(eventMapper::toEventFullDto)
+                .peek(dto -> dto.setConfirmedRequests(Math.toIntExact(confirmed.getOrDefault(dto.getId(), 0L))))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StreamingResponseBody exportByAdmin(List<Long> users,
+                                               List<String> states,
+                                               List<Long> categories,
+                                               String rangeStart,
+                                               String rangeEnd,
+                                               ExportFormat format) {
+        Predicate predicate = adminPredicate(users, states, categories, rangeStart, rangeEnd);
+        log.info("Выгрузка событий по заданным параметрам в формате {}.", format);
+        return out -> eventExporter.export(predicate, format, out);
+    }
+
+    private Predicate adminPredicate(List<Long> users,
+                                     List<String> states,
+                                     List<Long> categories,
+                                     String rangeStart,
+                                     String rangeEnd) {
         LocalDateTime start = (rangeStart != null)
                 ? LocalDateTime.parse(rangeStart, FORMATTER)
                 : LocalDateTime.now();
         LocalDateTime end = (rangeEnd != null)
                 ? LocalDateTime.parse(rangeEnd, FORMATTER)
                 : LocalDateTime.now().plusYears(20);
-
-        PageRequest pageRequest = PageRequest.of(from / size, size);
         if (start.isAfter(end)) {
             throw new ValidationException("Временной промежуток задан неверно.");
         }
-        List<User> usersList;
-        if (users == null || users.isEmpty()) {
-            usersList = userRepository.findAll();
-            if (usersList.isEmpty()) {
-                log.info("Еще нет ни одного пользователя, а значит и событий нет.");
-                return new ArrayList<>();
-            }
-        } else {
-            usersList = userRepository.findByIdInOrderByIdAsc(users, pageRequest);
-            if (usersList.size() != users.size()) {
+        EventPredicateBuilder predicate = EventPredicateBuilder.create()
+                .eventDateBetween(start, end);
+        if (users != null && !users.isEmpty()) {
+            if (userRepository.countByIdIn(users) != users.stream().distinct().count()) {
                 throw new ValidationException("Список пользователей передан неверно.");
             }
+            predicate.initiators(users);
         }
-        List<EventState> eventStates;
-        if (states == null || states.isEmpty()) {
-            eventStates = List.of(EventState.PUBLISHED, EventState.CANCELED, EventState.PENDING);
-        } else {
+        if (states != null && !states.isEmpty()) {
             try {
-                eventStates = states.stream().map(EventState::valueOf).toList();
+                predicate.states(states.stream().map(EventState::valueOf).toList());
             } catch (IllegalArgumentException e) {
                 throw new ValidationException("Недопустимое значение статуса: " + e.getMessage());
             }
         }
-        List<Category> categoriesList;
-        if (categories == null) {
-            categoriesList = categoryRepository.findAll();
-            if (categoriesList.isEmpty()) {
-                log.info("Еще нет ни одной категории, а значит и событий нет");
-                return new ArrayList<>();
-            }
-        } else {
-            categoriesList = categoryRepository.findByIdInOrderByIdAsc(categories, pageRequest);
-            if (categoriesList.size() != categories.size()) {
+        if (categories != null) {
+            if (!categoryCatalog.containsAll(categories)) {
                 throw new ValidationException("Список категорий передан неверно неверно");
             }
+            predicate.exactCategories(categories);
         }
-        List<Event> events = eventRepository
-                .findByInitiatorInAndStateInAndCategoryInAndEventDateAfterAndEventDateBeforeOrderByIdAsc(
-                        usersList, eventStates, categoriesList, start, end, pageRequest
-                );
-        if (events.isEmpty()) {
-            log.info("По данным параметрам не нашлось ни одного события");
-            return new ArrayList<>();
-        }
-        log.info("Получен список событий по заданным параметрам");
-        return eventMapper.toEventFullDtoList(events);
+        return predicate.build();
     }
 
     @Override
@@ -330,7 +436,7 @@ public class EventServiceImpl implements EventService {
         }
         if (eventUpdateDto.getCategory() != null) {
             Long catId = eventUpdateDto.getCategory();
-            Category category = categoryRepository.findById(catId)
+            Category category = categoryCatalog.findCategory(catId)
                     .orElseThrow(() -> new ValidationException("Категории с id = {} не существует." + catId));
             oldEvent.setCategory(category);
         }
@@ -339,9 +445,11 @@ public class EventServiceImpl implements EventService {
         Optional.ofNullable(eventUpdateDto.getDescription()).ifPresent(oldEvent::setDescription);
         Optional.ofNullable(eventUpdateDto.getEventDate()).ifPresent(oldEvent::setEventDate);
         Optional.ofNullable(eventUpdateDto.getLocation()).ifPresent(oldEvent::setLocation);
-        Optional.ofNullable(eventUpdateDto.getParticipantLimit()).ifPresent(oldEvent::setParticipantLimit);
+        Optional.ofNullable(eventUpdateDto.getParticipantLimit())
+                .ifPresent(limit -> updateParticipantLimit(oldEvent, limit));
         Optional.ofNullable(eventUpdateDto.getPaid()).ifPresent(oldEvent::setPaid);
         Optional.ofNullable(eventUpdateDto.getRequestModeration()).ifPresent(oldEvent::setRequestModeration);
+        Optional.ofNullable(eventUpdateDto.getHighDemand()).ifPresent(oldEvent::setHighDemand);
 
         if (eventUpdateDto.getStateAction() != null
                 && oldEvent.getState() == EventState.PENDING
@@ -356,22 +464,45 @@ public class EventServiceImpl implements EventService {
             oldEvent.setPublishedOn(null);
         }
         log.info("Событие с id = {} обновлено администратором.", eventId);
+        eventPublisher.publishEvent(new CompilationsChangedEvent("обновление события " + eventId, List.of(eventId)));
         return eventMapper.toEventFullDto(oldEvent);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<EventShortDto> getAllPublic(String text,
-                                            List<Long> categories,
-                                            Boolean paid,
-                                            String rangeStart,
-                                            String rangeEnd,
-                                            boolean onlyAvailable,
-                                            EventSort sort,
-                                            int from,
-                                            int size,
-                                            HttpServletRequest request) {
+    public Tagged<List<EventShortDto>> getAllPublic(String text,
+                                                    List<Long> categories,
+                                                    Boolean paid,
+                                                    String rangeStart,
+                                                    String rangeEnd,
+                                                    boolean onlyAvailable,
+                                                    EventSort sort,
+                                                    int from,
+                                                    int size,
+                                                    Double lat,
+                                                    Double lon,
+                                                    Double radiusKm) {
+        List<EventShortView> events = findPublic(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort,
+                from, size, lat, lon, radiusKm);
+        Map<Long, Long> eventAndViews = statsService.getView(events.stream()
+                .map(EventShortView::id).toList(), false);
+        return toPublicDtos(events, eventAndViews);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<EventShortView> findPublic(String text,
+                                           List<Long> categories,
+                                           Boolean paid,
+                                           String rangeStart,
+                                           String rangeEnd,
+                                           boolean onlyAvailable,
+                                           EventSort sort,
+                                           int from,
+                                           int size,
+                                           Double lat,
+                                           Double lon,
+                                           Double radiusKm) {
         LocalDateTime start = (rangeStart != null)
                 ? LocalDateTime.parse(rangeStart, FORMATTER)
                 : LocalDateTime.now();
@@ -383,79 +514,89 @@ public class EventServiceImpl implements EventService {
         if (start.isAfter(end)) {
             throw new ValidationException("Временной промежуток задан неверно.");
         }
-        StringBuilder queryStr = new StringBuilder("""
-                SELECT e
-                FROM Event e
-                JOIN FETCH e.category c
-                WHERE e.eventDate >= :start AND e.eventDate <= :end
-                """);
-        if (text != null && !text.isEmpty()) {
-            queryStr.append(" AND (LOWER(e.annotation) LIKE LOWER(:text) OR LOWER(e.description) LIKE LOWER(:text))");
-        }
-        if (categories != null && !categories.isEmpty()) {
-            queryStr.append(" AND e.category.id IN :categories");
-        }
-        if (paid != null) {
-            queryStr.append(" AND e.paid = :paid");
-        }
-        queryStr.append(" AND e.participantLimit > e.confirmedRequests");
-
-        TypedQuery<Event> query = entityManager.createQuery(queryStr.toString(), Event.class)
-                .setParameter("start", start)
-                .setParameter("end", end);
-
-        if (text != null && !text.isEmpty()) {
-            query.setParameter("text", "%" + text + "%");
-        }
-        if (categories != null && !categories.isEmpty()) {
-            query.setParameter("categories", categories);
-        }
-        if (paid != null) {
-            query.setParameter("paid", paid);
-        }
-        query.setFirstResult(pageRequest.getPageNumber() * pageRequest.getPageSize());
-        query.setMaxResults(pageRequest.getPageSize());
-
-        List<Event> events = query.getResultList();
-        Map<Long, Long> eventAndViews = statsService.getView(events.stream()
-                .map(Event::getId).toList(), false);
-
-        events.forEach(e -> e.setViews(Math.toIntExact(eventAndViews.getOrDefault(e.getId(), 0L))));
-
-        if (sort != null) {
-            if (sort == EventSort.EVENT_DATE) {
-                events.sort(Comparator.comparing(Event::getEventDate));
-            } else if (sort == EventSort.VIEWS) {
-                events.sort(Comparator.comparing(Event::getViews).reversed());
-            }
-        }
-        if (events.stream().noneMatch(e -> e.getState() == EventState.PUBLISHED)) {
+        GeoCircle near = toGeoCircle(lat, lon, radiusKm);
+        Predicate predicate = EventPredicateBuilder.create()
+                .states(List.of(EventState.PUBLISHED))
+                .eventDateBetween(start, end)
+                .categories(categories)
+                .paid(paid)
+                .text(text)
+                .onlyAvailable(onlyAvailable)
+                .near(near)
+                .build();
+        List<EventShortView> events = eventRepository.findShortViews(predicate, sort, near, pageRequest);
+        if (events.isEmpty()) {
             throw new ValidationException("Нет опубликованных событий.");
         }
-        List<Event> paginatedEvents = events.stream().skip(from).toList();
-        statsService.createStats(request.getRequestURI(), request.getRemoteAddr());
+        return events;
+    }
 
-        return paginatedEvents.stream()
+    /**
+     * ETag считается по идентификаторам, версиям, инициаторам и просмотрам, DTO собираются только при запросе тела.
+     */
+    private Tagged<List<EventShortDto>> toPublicDtos(List<EventShortView> events, Map<Long, Long> eventAndViews) {
+        EntityTag tag = EntityTag.of("events").add(categoryCatalog.version());
+        events.forEach(event -> tag.add(event.id())
+                .add(event.initiatorId())
+                .add(event.initiatorName())
+                .add(event.version())
+                .add(event.confirmedRequests())
+                .add(eventAndViews.get(event.id())));
+        return new Tagged<>(tag.build(), () -> events.stream()
                 .map(eventMapper::toEventShortDto)
                 .peek(dto -> {
                     Long viewCount = eventAndViews.get(dto.getId());
                     dto.setViews(viewCount != null ? viewCount.intValue() : 0);
                 })
-                .toList();
+                .toList());
+    }
+
+    private GeoCircle toGeoCircle(Double lat, Double lon, Double radiusKm) {
+        if (lat == null && lon == null && radiusKm == null) {
+            return null;
+        }
+        if (lat == null || lon == null || radiusKm == null) {
+            throw new ValidationException("Для поиска по местоположению нужны параметры lat, lon и radiusKm.");
+        }
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new ValidationException("Координаты заданы неверно.");
+        }
+        return new GeoCircle(lat, lon, radiusKm);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public EventFullDto getEventByIdPublic(Long eventId, HttpServletRequest request) {
+    public Tagged<EventFullDto> getEventByIdPublic(Long eventId) {
+        Event event = findPublishedById(eventId);
+        Map<Long, Long> view = statsService.getView(List.of(eventId), true);
+        return toPublicDto(event, view);
+    }
+
+    private Event findPublishedById(Long eventId) {
         Event event = eventRepository.findByIdAndState(eventId, EventState.PUBLISHED)
                 .orElseThrow(() -> new NotFoundException("События с id = {} не существует." + eventId));
         if (event.getState() != EventState.PUBLISHED) {
             throw new NotFoundException("У события должен быть статус <ОПУБЛИКОВАННО>.");
         }
-        Map<Long, Long> view = statsService.getView(List.of(event.getId()), true);
-        EventFullDto eventResponseLongDto = eventMapper.toEventFullDto(event);
-        eventResponseLongDto.setViews(Math.toIntExact(view.getOrDefault(event.getId(), 0L)));
-        statsService.createStats(request.getRequestURI(), request.getRemoteAddr());
-        return eventResponseLongDto;
+        return event;
+    }
+
+    private Tagged<EventFullDto> toPublicDto(Event event, Map<Long, Long> views) {
+        long viewCount = views.getOrDefault(event.getId(), 0L);
+        String etag = EntityTag.of("event")
+                .add(categoryCatalog.version())
+                .add(event.getId())
+                .add(event.getInitiator().getId())
+                .add(event.getInitiator().getName())
+                .add(event.getVersion())
+                .add(event.getConfirmedRequests())
+                .add(viewCount)
+                .build();
+        return new Tagged<>(etag, () -> {
+            EventFullDto eventResponseLongDto = eventMapper.toEventFullDto(event);
+            eventResponseLongDto.setViews(Math.toIntExact(viewCount));
+            eventResponseLongDto.setVersion(event.getVersion());
+            return eventResponseLongDto;
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package ru.practicum.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.compilation.service.CompilationsChangedEvent;
+import ru.practicum.event.model.EventState;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.stat.service.StatsService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Переносит просмотры опубликованных будущих событий из сервиса статистики в events.views.
+ * Изменения каждой порции пишутся одним пакетом JDBC, строки с неизменным числом просмотров не трогаются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventViewsSynchronizer {
+
+    private static final int BATCH_SIZE = 100;
+    private static final String UPDATE_VIEWS = "UPDATE events SET views = ? WHERE id = ? AND views <> ?";
+
+    private final EventRepository eventRepository;
+    private final StatsService statsService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Scheduled(fixedDelayString = "${ewm.views.sync-interval-ms:60000}",
+            initialDelayString = "${ewm.views.sync-interval-ms:60000}")
+    public void synchronizeViews() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest batch = PageRequest.of(0, BATCH_SIZE);
+        long afterId = 0;
+        List<Long> updated = new ArrayList<>();
+        List<Long> ids;
+        do {
+            ids = eventRepository.findIdsByStateAndEventDateAfter(EventState.PUBLISHED, now, afterId, batch);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Map<Long, Long> views;
+            try {
+                views = statsService.getView(ids, false);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось получить просмотры событий с сервиса статистики: {}", e.getMessage());
+                return;
+            }
+            List<Object[]> rows = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                long count = views.getOrDefault(id, 0L);
+                rows.add(new Object[]{count, id, count});
+            }
+            int[] rowCounts = jdbcTemplate.batchUpdate(UPDATE_VIEWS, rows);
+            for (int i = 0; i < rowCounts.length; i++) {
+                if (rowCounts[i] != 0) {
+                    updated.add(ids.get(i));
+                }
+            }
+            afterId = ids.getLast();
+        } while (ids.size() == BATCH_SIZE);
+        if (!updated.isEmpty()) {
+            eventPublisher.publishEvent(new CompilationsChangedEvent("синхронизация просмотров", updated));
+        }
+        log.info("Просмотры синхронизированы, обновлено событий: {}.", updated.size());
+    }
+}
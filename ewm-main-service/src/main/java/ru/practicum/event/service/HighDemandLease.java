@@ -0,0 +1,59 @@
+package ru.practicum.event.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Аренда строки в service_leases, которая гарантирует, что счетчики высокого спроса ведет один экземпляр
+ * сервиса. Второй экземпляр с включенным режимом не получит аренду, пока первый ее продлевает.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HighDemandLease {
+
+    private static final String NAME = "high-demand-seats";
+
+    private final String owner = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${ewm.seats.high-demand.lease-ms:30000}")
+    private long leaseMs;
+
+    /**
+     * Берет или продлевает аренду. Возвращает false, если аренда принадлежит другому живому экземпляру.
+     */
+    public boolean acquire() {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp expiresAt = Timestamp.valueOf(now.plusNanos(leaseMs * 1_000_000));
+        int updated = jdbcTemplate.update("UPDATE service_leases SET owner = ?, expires_at = ? "
+                        + "WHERE name = ? AND (owner = ? OR expires_at < ?)",
+                owner, expiresAt, NAME, owner, Timestamp.valueOf(now));
+        if (updated == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update("INSERT INTO service_leases (name, owner, expires_at) "
+                            + "SELECT ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM service_leases WHERE name = ?)",
+                    NAME, owner, expiresAt, NAME) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        if (jdbcTemplate.update("DELETE FROM service_leases WHERE name = ? AND owner = ?", NAME, owner) == 1) {
+            log.info("Аренда счетчиков высокого спроса освобождена.");
+        }
+    }
+}
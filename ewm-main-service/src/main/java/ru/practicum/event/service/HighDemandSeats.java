@@ -0,0 +1,333 @@
+package ru.practicum.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.compilation.service.CompilationsChangedEvent;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventState;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.request.model.ParticipationRequestStatus;
+import ru.practicum.request.repository.ParticipationRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Счетчики свободных мест для событий с режимом высокого спроса. Места резервируются в памяти,
+ * а число подтвержденных заявок записывается в таблицу событий пакетами по расписанию.
+ * Счетчики верны только для одного экземпляра сервиса, поэтому режим включается свойством
+ * ewm.seats.high-demand.enabled и работает, пока экземпляр держит аренду {@link HighDemandLease}.
+ * Без них события с highDemand резервируют места условным UPDATE в базе.
+ */
+@Slf4j
+@Component
+public class HighDemandSeats {
+
+    private final Map<Long, SeatCounter> counters = new ConcurrentHashMap<>();
+    // Продление и возврат аренды ходят в базу, поэтому не под монитором: он закрепил бы виртуальный поток
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private final EventRepository eventRepository;
+    private final ParticipationRequestRepository participationRequestRepository;
+    private final HighDemandLease lease;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final boolean enabled;
+    private volatile boolean leaseHeld;
+
+    public HighDemandSeats(EventRepository eventRepository,
+                           ParticipationRequestRepository participationRequestRepository,
+                           HighDemandLease lease,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${ewm.seats.high-demand.enabled:false}") boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.participationRequestRepository = participationRequestRepository;
+        this.lease = lease;
+        this.eventPublisher = eventPublisher;
+        this.transactionManager = transactionManager;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Ведет ли этот экземпляр счетчики в памяти. Иначе места событий с highDemand резервируются в базе.
+     */
+    public boolean isActive() {
+        return leaseHeld;
+    }
+
+    public int reserve(Long eventId, int participantLimit, int wanted) {
+        SeatCounter counter = counter(eventId, participantLimit);
+        int granted = counter.take(wanted);
+        if (granted > 0) {
+            afterCompletion(() -> confirmed(eventId, counter, granted), () -> counter.give(granted));
+        }
+        return granted;
+    }
+
+    public void release(Long eventId) {
+        SeatCounter counter = leaseHeld ? counters.get(eventId) : null;
+        if (counter == null) {
+            eventRepository.releaseSeat(eventId);
+            return;
+        }
+        afterCompletion(() -> {
+            confirmed(eventId, counter, -1);
+            counter.give(1);
+        }, () -> {
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        leaseLock.lock();
+        try {
+            if (leaseHeld) {
+                return;
+            }
+            if (!lease.acquire()) {
+                throw new IllegalStateException("Режим высокого спроса уже включен на другом экземпляре сервиса, "
+                        + "счетчики мест в памяти допускают только один экземпляр.");
+            }
+            restoreCounters();
+            leaseHeld = true;
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    /**
+     * Продлевает аренду. Потеряв ее, экземпляр сразу записывает накопленные подтверждения и сбрасывает
+     * счетчики, а на следующих тактах пытается вернуть аренду и заново сверяет счетчики с заявками.
+     */
+    @Scheduled(fixedDelayString = "#{${ewm.seats.high-demand.lease-ms:30000} / 3}")
+    public void renewLease() {
+        if (!enabled) {
+            return;
+        }
+        leaseLock.lock();
+        try {
+            if (leaseHeld) {
+                if (!renew()) {
+                    leaseHeld = false;
+                    log.error("Аренда счетчиков высокого спроса потеряна, места резервируются в базе.");
+                    retireCounters();
+                }
+                return;
+            }
+            if (lease.acquire()) {
+                restoreCounters();
+                leaseHeld = true;
+                log.info("Аренда счетчиков высокого спроса получена снова, места резервируются в памяти.");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось вернуть аренду счетчиков высокого спроса: {}", e.getMessage());
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.seats.flush-interval-ms:500}")
+    public void flush() {
+        List<Long> flushed = new ArrayList<>();
+        counters.forEach((eventId, counter) -> {
+            if (write(eventId, counter)) {
+                flushed.add(eventId);
+            }
+        });
+        if (!flushed.isEmpty()) {
+            eventPublisher.publishEvent(new CompilationsChangedEvent("сохранение счетчиков мест", flushed));
+        }
+    }
+
+    private boolean renew() {
+        try {
+            return lease.acquire();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось продлить аренду счетчиков высокого спроса: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Подтверждения, пришедшие после снятия счетчика, его владелец уже не запишет по расписанию,
+     * поэтому они записываются сразу.
+     */
+    private void confirmed(Long eventId, SeatCounter counter, int delta) {
+        counter.confirmed(delta);
+        if (counter.isRetired() && write(eventId, counter)) {
+            eventPublisher.publishEvent(new CompilationsChangedEvent("сохранение счетчиков мест", List.of(eventId)));
+        }
+    }
+
+    private void retireCounters() {
+        List<Long> flushed = new ArrayList<>();
+        for (Long eventId : List.copyOf(counters.keySet())) {
+            SeatCounter counter = counters.remove(eventId);
+            if (counter == null) {
+                continue;
+            }
+            counter.retire();
+            if (write(eventId, counter)) {
+                flushed.add(eventId);
+            }
+        }
+        if (!flushed.isEmpty()) {
+            eventPublisher.publishEvent(new CompilationsChangedEvent("сохранение счетчиков мест", flushed));
+        }
+    }
+
+    /**
+     * Строка события блокируется до подсчета заявок: резервирования в базе, начатые до получения аренды,
+     * успевают завершиться и попадают в счетчик.
+     */
+    private void restoreCounters() {
+        flush();
+        counters.clear();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (Event event : eventRepository.findByHighDemandTrueAndStateAndEventDateAfter(EventState.PUBLISHED,
+                LocalDateTime.now())) {
+            Long eventId = event.getId();
+            int confirmed = Objects.requireNonNull(transaction.execute(status -> {
+                eventRepository.findForUpdateById(eventId);
+                int actual = countConfirmed(eventId);
+                eventRepository.setConfirmedRequests(eventId, actual);
+                return actual;
+            }));
+            counters.put(eventId, new SeatCounter(event.getParticipantLimit(), confirmed));
+            log.info("Счетчик мест события с id = {} восстановлен, подтверждено заявок: {}.", eventId, confirmed);
+        }
+    }
+
+    private boolean write(Long eventId, SeatCounter counter) {
+        int delta = counter.drain();
+        if (delta == 0) {
+            return false;
+        }
+        try {
+            eventRepository.addConfirmedRequests(eventId, delta);
+            return true;
+        } catch (RuntimeException e) {
+            counter.confirmed(delta);
+            log.warn("Не удалось сохранить подтвержденные заявки события с id = {}: {}", eventId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Подсчет заявок идет вне ConcurrentHashMap: запрос к базе внутри computeIfAbsent держит монитор ячейки
+     * и закрепляет виртуальный поток за носителем. При гонке остается счетчик, попавший в карту первым.
+     */
+    private SeatCounter counter(Long eventId, int participantLimit) {
+        SeatCounter counter = counters.get(eventId);
+        if (counter != null) {
+            return counter;
+        }
+        SeatCounter loaded = new SeatCounter(participantLimit, countConfirmed(eventId));
+        SeatCounter existing = counters.putIfAbsent(eventId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private int countConfirmed(Long eventId) {
+        return Math.toIntExact(participationRequestRepository.countByEventIdAndStatus(eventId,
+                ParticipationRequestStatus.CONFIRMED));
+    }
+
+    private static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    static final class SeatCounter {
+
+        private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+        // Ячейки разнесены по разным кэш-линиям.
+        private static final int PADDING = 16;
+
+        private final boolean unlimited;
+        private final AtomicIntegerArray free = new AtomicIntegerArray(STRIPES * PADDING);
+        private final AtomicInteger unflushed = new AtomicInteger();
+        private volatile boolean retired;
+
+        SeatCounter(int limit, int confirmed) {
+            unlimited = limit == 0;
+            int seats = Math.max(0, limit - confirmed);
+            for (int i = 0; i < STRIPES; i++) {
+                free.set(i * PADDING, seats / STRIPES + (i < seats % STRIPES ? 1 : 0));
+            }
+        }
+
+        int take(int wanted) {
+            if (unlimited) {
+                return wanted;
+            }
+            int start = ThreadLocalRandom.current().nextInt(STRIPES);
+            int taken = 0;
+            for (int i = 0; i < STRIPES && taken < wanted; i++) {
+                int slot = ((start + i) & (STRIPES - 1)) * PADDING;
+                int current = free.get(slot);
+                while (current > 0 && taken < wanted) {
+                    int grab = Math.min(current, wanted - taken);
+                    if (free.compareAndSet(slot, current, current - grab)) {
+                        taken += grab;
+                    }
+                    current = free.get(slot);
+                }
+            }
+            return taken;
+        }
+
+        void give(int seats) {
+            if (!unlimited) {
+                free.addAndGet(ThreadLocalRandom.current().nextInt(STRIPES) * PADDING, seats);
+            }
+        }
+
+        void confirmed(int delta) {
+            unflushed.addAndGet(delta);
+        }
+
+        int drain() {
+            return unflushed.getAndSet(0);
+        }
+
+        void retire() {
+            retired = true;
+        }
+
+        boolean isRetired() {
+            return retired;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.event.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.event.geo.GeoCell;
+import ru.practicum.event.model.Location;
+
+import java.util.List;
+
+/**
+ * Заполняет locations.geocell для мест, сохраненных до появления колонки. Без ячейки событие
+ * не попадает в поиск по местоположению. Пакеты идут по возрастанию location_id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocationGeocellBackfill {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long afterId = 0;
+        int updated = 0;
+        List<Object[]> rows;
+        do {
+            rows = jdbcTemplate.query("SELECT location_id, lat, lon FROM locations "
+                            + "WHERE geocell IS NULL AND location_id > ? ORDER BY location_id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{GeoCell.encode(rs.getFloat("lat"), rs.getFloat("lon")),
+                            rs.getLong("location_id")},
+                    afterId, BATCH_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate("UPDATE locations SET geocell = ? WHERE location_id = ?", rows);
+            updated += rows.size();
+            afterId = (Long) rows.getLast()[1];
+        } while (rows.size() == BATCH_SIZE);
+        if (updated > 0) {
+            entityManagerFactory.getCache().evict(Location.class);
+            log.info("Заполнены геоячейки мест, обновлено строк: {}.", updated);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.exception;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
@@ -68,7 +69,8 @@ public class ErrorHandler {
                 .build();
     }
 
-    @ExceptionHandler({DuplicatedDataException.class, ConflictException.class})
+    @ExceptionHandler({DuplicatedDataException.class, ConflictException.class,
+            OptimisticLockingFailureException.class})
     @ResponseStatus(HttpStatus.CONFLICT)
     public ApiError conflict(RuntimeException e) {
         log.error(stackTraceToString(e));
@@ -0,0 +1,39 @@
+package ru.practicum.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Распознавание нарушения конкретного ограничения уникальности. Остальные нарушения целостности
+ * (внешние ключи, NOT NULL, CHECK, первичный ключ) вызывающий код пробрасывает дальше.
+ */
+public final class UniqueViolations {
+
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+
+    private UniqueViolations() {
+    }
+
+    public static boolean isViolated(DataIntegrityViolationException e, String constraint) {
+        String name = constraint.toLowerCase(Locale.ROOT);
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                // Диалект Postgres не определяет вид ограничения у ошибок пакетной вставки, остается SQLState
+                boolean unique = violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                        || UNIQUE_VIOLATION_STATE.equals(violation.getSQLState());
+                return unique
+                        && violation.getConstraintName() != null
+                        && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(name);
+            }
+            if (cause instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION_STATE.equals(sqlException.getSQLState())) {
+                return sqlException.getMessage() != null
+                        && sqlException.getMessage().toLowerCase(Locale.ROOT).contains(name);
+            }
+        }
+        return false;
+    }
+}
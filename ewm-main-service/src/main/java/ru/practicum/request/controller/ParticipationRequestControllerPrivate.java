@@ -1,6 +1,7 @@
 package ru.practicum.request.controller;
 
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -32,8 +34,11 @@ public class ParticipationRequestControllerPrivate {
 
     @PostMapping
     @ResponseStatus(code = HttpStatus.CREATED)
-    public ParticipationRequestDto createParticipationRequest(@PathVariable Long userId, @RequestParam Long eventId) {
-        return participationRequestService.createParticipationRequest(userId, eventId);
+    public ParticipationRequestDto createParticipationRequest(@PathVariable Long userId,
+                                                              @RequestParam Long eventId,
+                                                              @RequestHeader(name = "Idempotency-Key", required = false)
+                                                              @Size(max = 64) String idempotencyKey) {
+        return participationRequestService.createParticipationRequest(userId, eventId, idempotencyKey);
     }
 
     @PatchMapping("/{requestId}/cancel")
@@ -0,0 +1,12 @@
+package ru.practicum.request.dto;
+
+import ru.practicum.request.model.ParticipationRequestStatus;
+
+import java.time.LocalDateTime;
+
+public record ParticipationRequestView(Long id,
+                                       Long requester,
+                                       Long event,
+                                       ParticipationRequestStatus status,
+                                       LocalDateTime created) {
+}
@@ -0,0 +1,20 @@
+package ru.practicum.request.dto;
+
+import ru.practicum.event.model.EventState;
+import ru.practicum.request.model.ParticipationRequestStatus;
+
+import java.time.LocalDateTime;
+
+public record RequestIntakeCheck(Long eventId,
+                                 Long initiatorId,
+                                 EventState state,
+                                 Integer participantLimit,
+                                 Integer confirmedRequests,
+                                 Boolean requestModeration,
+                                 Boolean highDemand,
+                                 Long userId,
+                                 Long requestId,
+                                 ParticipationRequestStatus requestStatus,
+                                 LocalDateTime requestCreated,
+                                 String requestIdempotencyKey) {
+}
@@ -0,0 +1,7 @@
+package ru.practicum.request.dto;
+
+public record RequestStatusSummary(Long total,
+                                   Long foreign,
+                                   Long confirmed,
+                                   Long notPending) {
+}
@@ -4,7 +4,9 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.request.dto.ParticipationRequestView;
 import ru.practicum.request.model.ParticipationRequest;
+import ru.practicum.request.model.ParticipationRequestStatus;
 
 import java.util.List;
 
@@ -17,4 +19,9 @@ public interface ParticipationRequestMapper {
     ParticipationRequestDto toParticipationRequestDto(ParticipationRequest request);
 
     List<ParticipationRequestDto> toParticipationRequestDtoList(List<ParticipationRequest> requests);
+
+    ParticipationRequestDto toParticipationRequestDto(ParticipationRequestView view);
+
+    @Mapping(target = "status", source = "status")
+    ParticipationRequestDto toParticipationRequestDto(ParticipationRequestView view, ParticipationRequestStatus status);
 }
\ No newline at end of file
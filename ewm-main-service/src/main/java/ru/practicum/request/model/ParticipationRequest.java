@@ -16,11 +16,16 @@ import java.time.LocalDateTime;
 @Entity
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "requests")
+@Table(name = "requests",
+        uniqueConstraints = @UniqueConstraint(name = ParticipationRequest.REQUESTER_EVENT_UNIQUE,
+                columnNames = {"requester_id", "event_id"}))
 public class ParticipationRequest {
 
+    public static final String REQUESTER_EVENT_UNIQUE = "requests_requester_event_uq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 100)
     private Long id;
 
     @NotNull
@@ -39,4 +44,7 @@ public class ParticipationRequest {
     @NotNull
     @Column(name = "created")
     private LocalDateTime created;
+
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
 }
\ No newline at end of file
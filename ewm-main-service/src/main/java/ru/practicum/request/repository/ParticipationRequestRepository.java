@@ -1,30 +1,96 @@
 package ru.practicum.request.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.request.dto.ConfirmedRequest;
+import ru.practicum.request.dto.ParticipationRequestView;
+import ru.practicum.request.dto.RequestIntakeCheck;
+import ru.practicum.request.dto.RequestStatusSummary;
 import ru.practicum.request.model.ParticipationRequest;
 import ru.practicum.request.model.ParticipationRequestStatus;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ParticipationRequestRepository extends JpaRepository<ParticipationRequest, Long> {
 
-    ParticipationRequest findByRequesterIdAndEventId(Long requesterId,
-                                                     Long eventId);
-
     List<ParticipationRequest> findByRequesterId(Long requesterId);
 
-    List<ParticipationRequest> findByEventId(Long eventId);
+    @Query("""
+            SELECT new ru.practicum.request.dto.RequestIntakeCheck(e.id, e.initiator.id, e.state, e.participantLimit,
+                   e.confirmedRequests, e.requestModeration, e.highDemand, u.id, r.id, r.status, r.created,
+                   r.idempotencyKey)
+            FROM Event e
+            LEFT JOIN User u ON u.id = :userId
+            LEFT JOIN ParticipationRequest r ON r.event.id = e.id AND r.requester.id = :userId
+            WHERE e.id = :eventId
+            """)
+    Optional<RequestIntakeCheck> checkIntake(@Param("userId") Long userId, @Param("eventId") Long eventId);
 
-    List<ParticipationRequest> findRequestByIdIn(List<Long> requestsId);
+    long countByEventIdAndStatus(Long eventId, ParticipationRequestStatus status);
 
     @Query(value = "SELECT new ru.practicum.request.dto.ConfirmedRequest(r.event.id, COUNT(r.id)) "
             + "FROM ParticipationRequest r "
             + "WHERE r.event.id IN (:eventIds) AND r.status = :status "
-            + "GROUP BY r.id, r.event.id "
-            + "ORDER BY r.id, r.event.id")
-    List<ConfirmedRequest> getConfirmedRequestsByStatus(@Param("eventIds") List<Long> eventIds,
+            + "GROUP BY r.event.id")
+    List<ConfirmedRequest> getConfirmedRequestsByStatus(@Param("eventIds") Collection<Long> eventIds,
                                                         @Param("status") ParticipationRequestStatus status);
-}
\ No newline at end of file
+
+    @Query("""
+            SELECT new ru.practicum.request.dto.RequestStatusSummary(COUNT(r.id),
+                   COALESCE(SUM(CASE WHEN r.event.id <> :eventId THEN 1 ELSE 0 END), 0),
+                   COALESCE(SUM(CASE WHEN r.status = ru.practicum.request.model.ParticipationRequestStatus.CONFIRMED
+                                     THEN 1 ELSE 0 END), 0),
+                   COALESCE(SUM(CASE WHEN r.status <> ru.practicum.request.model.ParticipationRequestStatus.PENDING
+                                     THEN 1 ELSE 0 END), 0))
+            FROM ParticipationRequest r
+            WHERE r.id IN :ids
+            """)
+    RequestStatusSummary summarizeByIdIn(@Param("eventId") Long eventId, @Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT new ru.practicum.request.dto.ParticipationRequestView(r.id, r.requester.id, r.event.id, r.status,
+                   r.created)
+            FROM ParticipationRequest r
+            WHERE r.id IN :ids
+            """)
+    List<ParticipationRequestView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT new ru.practicum.request.dto.ParticipationRequestView(r.id, r.requester.id, r.event.id, r.status,
+                   r.created)
+            FROM ParticipationRequest r
+            WHERE r.event.id = :eventId AND r.status IN :statuses AND r.id > :afterId
+            ORDER BY r.id
+            """)
+    List<ParticipationRequestView> findViewsByEventId(@Param("eventId") Long eventId,
+                                                      @Param("statuses") Collection<ParticipationRequestStatus> statuses,
+                                                      @Param("afterId") long afterId,
+                                                      Pageable pageable);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new ru.practicum.request.dto.ParticipationRequestView(r.id, r.requester.id, r.event.id, r.status,
+                   r.created)
+            FROM ParticipationRequest r
+            WHERE r.event.id = :eventId AND r.status IN :statuses
+            ORDER BY r.id
+            """)
+    Stream<ParticipationRequestView> streamViewsByEventId(@Param("eventId") Long eventId,
+                                                          @Param("statuses")
+                                                          Collection<ParticipationRequestStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE ParticipationRequest r SET r.status = :status WHERE r.id IN :ids AND r.status IN :expected")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("expected") Collection<ParticipationRequestStatus> expected,
+                     @Param("status") ParticipationRequestStatus status);
+}
@@ -0,0 +1,73 @@
+package ru.practicum.request.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.export.ExportFormat;
+import ru.practicum.request.dto.ParticipationRequestView;
+import ru.practicum.request.mapper.ParticipationRequestMapper;
+import ru.practicum.request.model.ParticipationRequestStatus;
+import ru.practicum.request.repository.ParticipationRequestRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static ru.practicum.event.dto.EventFullDto.DATE_TIME_FORMAT;
+
+@Component
+@RequiredArgsConstructor
+public class ParticipationRequestExporter {
+
+    private static final String CSV_HEADER = "id,requester,event,status,created\n";
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
+
+    private final ParticipationRequestRepository participationRequestRepository;
+    private final ParticipationRequestMapper participationRequestMapper;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    public void export(Long eventId,
+                       Collection<ParticipationRequestStatus> statuses,
+                       ExportFormat format,
+                       OutputStream out) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<ParticipationRequestView> requests =
+                         participationRequestRepository.streamViewsByEventId(eventId, statuses)) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                if (format == ExportFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                }
+                Iterator<ParticipationRequestView> iterator = requests.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(format == ExportFormat.CSV ? toCsv(iterator.next()) : toJson(iterator.next()));
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private String toJson(ParticipationRequestView request) throws IOException {
+        return objectMapper.writeValueAsString(participationRequestMapper.toParticipationRequestDto(request));
+    }
+
+    private static String toCsv(ParticipationRequestView request) {
+        return request.id() + "," + request.requester() + "," + request.event() + ","
+                + request.status() + "," + FORMATTER.format(request.created());
+    }
+}
@@ -7,7 +7,7 @@ import java.util.List;
 public interface ParticipationRequestService {
     List<ParticipationRequestDto> getAllParticipationRequests(Long userId);
 
-    ParticipationRequestDto createParticipationRequest(Long userId, Long eventId);
+    ParticipationRequestDto createParticipationRequest(Long userId, Long eventId, String idempotencyKey);
 
     ParticipationRequestDto cancelParticipationRequest(Long userId, Long requestId);
 }
@@ -2,16 +2,27 @@ package ru.practicum.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.User.model.User;
 import ru.practicum.User.repository.UserRepository;
+import ru.practicum.compilation.service.CompilationsChangedEvent;
 import ru.practicum.event.model.Event;
 import ru.practicum.event.model.EventState;
 import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.service.HighDemandSeats;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.exception.UniqueViolations;
 import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.request.dto.ParticipationRequestView;
+import ru.practicum.request.dto.RequestIntakeCheck;
 import ru.practicum.request.mapper.ParticipationRequestMapper;
 import ru.practicum.request.model.ParticipationRequest;
 import ru.practicum.request.model.ParticipationRequestStatus;
@@ -30,7 +41,10 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
     private final ParticipationRequestRepository participationRequestRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final HighDemandSeats highDemandSeats;
     private final ParticipationRequestMapper participationRequestMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -45,43 +59,65 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
     }
 
     @Override
-    public ParticipationRequestDto createParticipationRequest(Long userId, Long eventId) {
-        Event event = eventRepository.findById(eventId)
+    public ParticipationRequestDto createParticipationRequest(Long userId, Long eventId, String idempotencyKey) {
+        RequestIntakeCheck check = participationRequestRepository.checkIntake(userId, eventId)
                 .orElseThrow(() -> new NotFoundException("События с id = {} не существует." + eventId));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователя с id = {} не существует." + userId));
-        ParticipationRequest requestValid =
-                participationRequestRepository.findByRequesterIdAndEventId(userId, eventId);
-        if (requestValid != null || event.getInitiator().getId().equals(user.getId())) {
+        if (check.userId() == null) {
+            throw new NotFoundException("Пользователя с id = {} не существует." + userId);
+        }
+        if (isReplay(check, idempotencyKey)) {
+            return replay(check, userId, eventId);
+        }
+        if (check.requestId() != null || check.initiatorId().equals(userId)) {
             throw new ConflictException("Пользователь является инициатором события или уже подал заявку на участие.");
         }
-        if (event.getParticipantLimit().equals(event.getConfirmedRequests()) && event.getParticipantLimit() != 0) {
+        if (check.participantLimit().equals(check.confirmedRequests()) && check.participantLimit() != 0) {
             throw new ConflictException("На данное мероприятие больше нет мест.");
         }
-        if (!event.getState().equals(EventState.PUBLISHED)) {
+        if (check.state() != EventState.PUBLISHED) {
             throw new ConflictException("Событие еще не было опубликовано.");
         }
 
         ParticipationRequest request = new ParticipationRequest();
-        request.setEvent(event);
-        request.setRequester(user);
+        request.setEvent(eventRepository.getReferenceById(eventId));
+        request.setRequester(userRepository.getReferenceById(userId));
         request.setCreated(LocalDateTime.now());
+        request.setIdempotencyKey(idempotencyKey);
 
-        if (event.getParticipantLimit() == 0
-                || (!event.getRequestModeration() && event.getParticipantLimit() > event.getConfirmedRequests())) {
-            request.setStatus(ParticipationRequestStatus.CONFIRMED);
-            event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-            log.info("Сохранение заявки на участие со статусом <ПОДТВЕРЖДЕНА>.");
-        } else if (!event.getRequestModeration()
-                && event.getParticipantLimit().equals(event.getConfirmedRequests())) {
-            request.setStatus(ParticipationRequestStatus.REJECTED);
-            log.info("Сохранение заявки со статусом <ОТМЕНЕНА>, т.к. лимит достигнут.");
+        if (check.participantLimit() == 0 || !check.requestModeration()) {
+            boolean reserved = Boolean.TRUE.equals(check.highDemand()) && highDemandSeats.isActive()
+                    ? highDemandSeats.reserve(eventId, check.participantLimit(), 1) == 1
+                    : eventRepository.reserveSeat(eventId) == 1;
+            if (reserved) {
+                request.setStatus(ParticipationRequestStatus.CONFIRMED);
+                log.info("Сохранение заявки на участие со статусом <ПОДТВЕРЖДЕНА>.");
+            } else {
+                request.setStatus(ParticipationRequestStatus.REJECTED);
+                log.info("Сохранение заявки со статусом <ОТМЕНЕНА>, т.к. лимит достигнут.");
+            }
         } else {
             request.setStatus(ParticipationRequestStatus.PENDING);
             log.info("Сохранение заявки со статусом <В ОЖИДАНИИ>.");
         }
 
-        participationRequestRepository.save(request);
+        try {
+            participationRequestRepository.saveAndFlush(request);
+        } catch (DataIntegrityViolationException e) {
+            if (!UniqueViolations.isViolated(e, ParticipationRequest.REQUESTER_EVENT_UNIQUE)) {
+                throw e;
+            }
+            // Заявку параллельно сохранил другой запрос: резерв места этой транзакции откатывается
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            RequestIntakeCheck saved = readCommitted(userId, eventId);
+            if (isReplay(saved, idempotencyKey)) {
+                return replay(saved, userId, eventId);
+            }
+            throw new ConflictException("Пользователь уже подал заявку на участие в этом событии.");
+        }
+        if (request.getStatus() == ParticipationRequestStatus.CONFIRMED) {
+            eventPublisher.publishEvent(new CompilationsChangedEvent("подтверждение заявки на событие " + eventId,
+                    List.of(eventId)));
+        }
         return participationRequestMapper.toParticipationRequestDto(request);
     }
 
@@ -95,15 +131,45 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
             throw new ConflictException("Отменить заявку может только пользователь, иницировавший её.");
         }
 
+        boolean wasConfirmed = request.getStatus() == ParticipationRequestStatus.CONFIRMED;
         request.setStatus(ParticipationRequestStatus.CANCELED);
         log.info("Заявка на участие с id = {} отменена.", requestId);
 
-        Event event = request.getEvent();
-        if (Boolean.TRUE.equals(event.getRequestModeration())) {
-            event.setConfirmedRequests(event.getConfirmedRequests() - 1);
+        if (wasConfirmed) {
+            Event event = request.getEvent();
+            if (Boolean.TRUE.equals(event.getHighDemand()) && highDemandSeats.isActive()) {
+                highDemandSeats.release(event.getId());
+            } else {
+                eventRepository.releaseSeat(event.getId());
+            }
             log.info("Появилось свободное место у события с id = {}.", event.getId());
+            eventPublisher.publishEvent(new CompilationsChangedEvent("отмена заявки на событие " + event.getId(),
+                    List.of(event.getId())));
         }
 
         return participationRequestMapper.toParticipationRequestDto(request);
     }
-}
\ No newline at end of file
+
+    private static boolean isReplay(RequestIntakeCheck check, String idempotencyKey) {
+        return check != null && check.requestId() != null && idempotencyKey != null
+                && idempotencyKey.equals(check.requestIdempotencyKey());
+    }
+
+    private ParticipationRequestDto replay(RequestIntakeCheck check, Long userId, Long eventId) {
+        log.info("Повторный запрос с ключом идемпотентности, возвращается заявка с id = {}.", check.requestId());
+        return participationRequestMapper.toParticipationRequestDto(new ParticipationRequestView(
+                check.requestId(), userId, eventId, check.requestStatus(), check.requestCreated()));
+    }
+
+    /**
+     * Текущая транзакция после нарушения ограничения непригодна (в Postgres она прервана),
+     * поэтому сохраненная заявка читается в отдельной.
+     */
+    private RequestIntakeCheck readCommitted(Long userId, Long eventId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> participationRequestRepository.checkIntake(userId, eventId)
+                .orElse(null));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.request.dto.ConfirmedRequest;
+import ru.practicum.request.model.ParticipationRequestStatus;
+import ru.practicum.request.repository.ParticipationRequestRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RequestCountService {
+
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    private final ParticipationRequestRepository participationRequestRepository;
+
+    /**
+     * Число заявок с заданным статусом по каждому событию. События без заявок в результат не попадают.
+     */
+    public Map<Long, Long> countByEvent(Collection<Long> eventIds, ParticipationRequestStatus status) {
+        List<Long> ids = eventIds.stream().distinct().toList();
+        Map<Long, Long> counts = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + IN_CHUNK_SIZE));
+            for (ConfirmedRequest count : participationRequestRepository.getConfirmedRequestsByStatus(chunk, status)) {
+                counts.put(count.getEventId(), count.getConfirmedCountRequests());
+            }
+        }
+        log.debug("Получено число заявок со статусом {} для {} событий.", status, ids.size());
+        return counts;
+    }
+
+    public Map<Long, Long> countConfirmed(Collection<Long> eventIds) {
+        return countByEvent(eventIds, ParticipationRequestStatus.CONFIRMED);
+    }
+}
@@ -10,12 +10,15 @@ import ru.practicum.StatDtoOutput;
 
 import java.util.List;
 
-@FeignClient(value = "stats-client", url = "http://stats-server:9090")
+@FeignClient(value = "stats-client", url = "${ewm.stats.url:http://stats-server:9090}")
 public interface StatsClient {
 
     @PostMapping("/hit")
     StatDtoInput createStats(@RequestBody StatDtoInput creationDto);
 
+    @PostMapping("/hit/batch")
+    void createStats(@RequestBody List<StatDtoInput> creationDtos);
+
     @GetMapping("/stats")
     List<StatDtoOutput> getStats(@RequestParam String start,
                                  @RequestParam String end,
@@ -0,0 +1,101 @@
+package ru.practicum.stat.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.StatDtoInput;
+import ru.practicum.stat.client.StatsClient;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пересылает обращения из таблицы stats_outbox в сервис статистики. Пакет захватывается короткой
+ * транзакцией через SKIP LOCKED и отметку claimed_until, отправляется вне транзакции и удаляется
+ * отдельным запросом. Если экземпляр упал после отправки, строки вернутся после истечения отметки,
+ * поэтому доставка не реже одного раза.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatsOutboxRelay {
+
+    private static final String APP_NAME = "ewm-main-service";
+    private static final int BATCH_SIZE = 500;
+
+    private final StatsClient statsClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${ewm.stats.outbox-lease-ms:120000}")
+    private long leaseMs;
+
+    @Scheduled(fixedDelayString = "${ewm.stats.outbox-relay-ms:200}")
+    public void relay() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<OutboxHit> hits;
+        do {
+            try {
+                hits = transaction.execute(status -> claim());
+            } catch (RuntimeException e) {
+                log.warn("Не удалось захватить обращения для отправки статистики: {}", e.getMessage());
+                return;
+            }
+            if (hits == null || hits.isEmpty()) {
+                return;
+            }
+            Map<String, List<Long>> ids = Map.of("ids", hits.stream().map(OutboxHit::id).toList());
+            try {
+                statsClient.createStats(hits.stream()
+                        .map(hit -> new StatDtoInput(APP_NAME, hit.uri(), hit.ip(), hit.created()))
+                        .toList());
+            } catch (RuntimeException e) {
+                log.warn("Не удалось отправить статистику, отправка будет повторена: {}", e.getMessage());
+                release(ids);
+                return;
+            }
+            try {
+                namedParameterJdbcTemplate.update("DELETE FROM stats_outbox WHERE id IN (:ids)", ids);
+            } catch (RuntimeException e) {
+                log.warn("Отправленные обращения не удалены и будут отправлены повторно: {}", e.getMessage());
+                return;
+            }
+            log.debug("В сервис статистики отправлено {} обращений.", hits.size());
+        } while (hits.size() == BATCH_SIZE);
+    }
+
+    private List<OutboxHit> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxHit> hits = jdbcTemplate.query("SELECT id, uri, ip, created FROM stats_outbox "
+                        + "WHERE claimed_until IS NULL OR claimed_until < ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> new OutboxHit(rs.getLong("id"), rs.getString("uri"), rs.getString("ip"),
+                        rs.getTimestamp("created").toLocalDateTime()),
+                Timestamp.valueOf(now), BATCH_SIZE);
+        if (!hits.isEmpty()) {
+            namedParameterJdbcTemplate.update("UPDATE stats_outbox SET claimed_until = :until WHERE id IN (:ids)",
+                    Map.of("until", Timestamp.valueOf(now.plusNanos(leaseMs * 1_000_000)),
+                            "ids", hits.stream().map(OutboxHit::id).toList()));
+        }
+        return hits;
+    }
+
+    private void release(Map<String, List<Long>> ids) {
+        try {
+            namedParameterJdbcTemplate.update("UPDATE stats_outbox SET claimed_until = NULL WHERE id IN (:ids)", ids);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось снять отметку с обращений, они вернутся после истечения аренды: {}", e.getMessage());
+        }
+    }
+
+    private record OutboxHit(long id, String uri, String ip, LocalDateTime created) {
+    }
+}
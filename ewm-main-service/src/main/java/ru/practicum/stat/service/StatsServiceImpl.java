@@ -2,8 +2,8 @@ package ru.practicum.stat.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import ru.practicum.StatDtoInput;
 import ru.practicum.StatDtoOutput;
 import ru.practicum.stat.client.StatsClient;
 
@@ -20,20 +20,16 @@ import static ru.practicum.event.dto.EventFullDto.DATE_TIME_FORMAT;
 @RequiredArgsConstructor
 public class StatsServiceImpl implements StatsService {
 
-    private static final String APP_NAME = "ewm-main-service";
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
 
     private final StatsClient statsClient;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public void createStats(final String uri, final String ip) {
-        final StatDtoInput statDtoInput = new StatDtoInput();
-        statDtoInput.setApp(APP_NAME);
-        statDtoInput.setIp(ip);
-        statDtoInput.setUri(uri);
-        statDtoInput.setTimestamp(LocalDateTime.now());
-        final StatDtoInput stat = statsClient.createStats(statDtoInput);
-        log.info("Информация сохранена {}.", stat);
+        jdbcTemplate.update("INSERT INTO stats_outbox (uri, ip, created) VALUES (?, ?, ?)",
+                uri, ip, LocalDateTime.now());
+        log.info("Обращение к {} добавлено в очередь отправки статистики.", uri);
     }
 
     @Override
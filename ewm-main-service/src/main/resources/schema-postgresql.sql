@@ -0,0 +1,12 @@
+    SELECT setval('users_seq', (SELECT MAX(id) FROM users))
+     WHERE (SELECT MAX(id) FROM users) >= (SELECT last_value FROM users_seq);
+    SELECT setval('categories_seq', (SELECT MAX(id) FROM categories))
+     WHERE (SELECT MAX(id) FROM categories) >= (SELECT last_value FROM categories_seq);
+    SELECT setval('locations_seq', (SELECT MAX(location_id) FROM locations))
+     WHERE (SELECT MAX(location_id) FROM locations) >= (SELECT last_value FROM locations_seq);
+    SELECT setval('events_seq', (SELECT MAX(id) FROM events))
+     WHERE (SELECT MAX(id) FROM events) >= (SELECT last_value FROM events_seq);
+    SELECT setval('requests_seq', (SELECT MAX(id) FROM requests))
+     WHERE (SELECT MAX(id) FROM requests) >= (SELECT last_value FROM requests_seq);
+    SELECT setval('compilations_seq', (SELECT MAX(id) FROM compilations))
+     WHERE (SELECT MAX(id) FROM compilations) >= (SELECT last_value FROM compilations_seq);
@@ -1,14 +1,21 @@
-
+    CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+    CREATE SEQUENCE IF NOT EXISTS categories_seq START WITH 1 INCREMENT BY 10;
+    CREATE SEQUENCE IF NOT EXISTS locations_seq START WITH 1 INCREMENT BY 50;
+    CREATE SEQUENCE IF NOT EXISTS events_seq START WITH 1 INCREMENT BY 50;
+    CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 100;
+    CREATE SEQUENCE IF NOT EXISTS compilations_seq START WITH 1 INCREMENT BY 10;
 
     CREATE TABLE IF NOT EXISTS users (
      id                       BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
      name	                  VARCHAR(255) NOT NULL,
-     email                    VARCHAR(255) UNIQUE NOT NULL
+     email                    VARCHAR(255) NOT NULL,
+     CONSTRAINT users_email_key UNIQUE (email)
      );
 
     CREATE TABLE IF NOT EXISTS categories (
      id                       BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
-     name	                  VARCHAR(50) UNIQUE NOT NULL
+     name	                  VARCHAR(50) NOT NULL,
+     CONSTRAINT categories_name_key UNIQUE (name)
      );
 
      CREATE TABLE IF NOT EXISTS locations (
@@ -53,4 +60,57 @@
      events_id                INTEGER REFERENCES events (id) ON DELETE CASCADE,
      compilation_id           INTEGER REFERENCES compilations (id) ON DELETE CASCADE,
      CONSTRAINT PK_EVENTS_COMPILATIONS PRIMARY KEY(events_id, compilation_id)
-     );
\ No newline at end of file
+     );
+
+-- Колонки, появившиеся после первой версии схемы, добавляются одинаково в новую и в существующую базу
+
+     ALTER TABLE locations ADD COLUMN IF NOT EXISTS geocell BIGINT;
+
+     ALTER TABLE events ADD COLUMN IF NOT EXISTS views BIGINT NOT NULL DEFAULT 0;
+     ALTER TABLE events ADD COLUMN IF NOT EXISTS high_demand BOOLEAN NOT NULL DEFAULT FALSE;
+     ALTER TABLE events ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+     ALTER TABLE events ADD COLUMN IF NOT EXISTS available BOOLEAN;
+     UPDATE events SET available = (participant_limit = 0 OR confirmed_requests < participant_limit)
+      WHERE available IS NULL;
+     ALTER TABLE events ALTER COLUMN available SET DEFAULT TRUE;
+     ALTER TABLE events ALTER COLUMN available SET NOT NULL;
+
+     ALTER TABLE requests ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(64);
+
+     ALTER TABLE compilations ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+     CREATE INDEX IF NOT EXISTS locations_geocell_idx ON locations (geocell);
+
+     CREATE INDEX IF NOT EXISTS events_state_event_date_idx ON events (state, event_date);
+
+     CREATE INDEX IF NOT EXISTS events_state_available_event_date_idx ON events (state, available, event_date);
+
+     CREATE INDEX IF NOT EXISTS events_state_views_idx ON events (state, views);
+
+     CREATE INDEX IF NOT EXISTS events_location_id_idx ON events (location_id);
+
+     CREATE UNIQUE INDEX IF NOT EXISTS requests_requester_event_uq ON requests (requester_id, event_id);
+
+     CREATE INDEX IF NOT EXISTS requests_event_id_status_id_idx ON requests (event_id, status, id);
+
+    CREATE TABLE IF NOT EXISTS catalog_versions (
+     name                     VARCHAR(50) NOT NULL PRIMARY KEY,
+     version                  BIGINT NOT NULL
+     );
+
+    INSERT INTO catalog_versions (name, version)
+     SELECT 'categories', 0 WHERE NOT EXISTS (SELECT 1 FROM catalog_versions WHERE name = 'categories');
+
+     CREATE TABLE IF NOT EXISTS stats_outbox (
+     id                       BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+     uri                      VARCHAR(255) NOT NULL,
+     ip                       VARCHAR(255) NOT NULL,
+     created                  TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+     claimed_until            TIMESTAMP WITHOUT TIME ZONE
+     );
+
+     CREATE TABLE IF NOT EXISTS service_leases (
+     name                     VARCHAR(50) NOT NULL PRIMARY KEY,
+     owner                    VARCHAR(64) NOT NULL,
+     expires_at               TIMESTAMP WITHOUT TIME ZONE NOT NULL
+     );
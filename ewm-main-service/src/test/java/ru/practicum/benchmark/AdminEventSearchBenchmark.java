@@ -0,0 +1,73 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.event.dto.EventFullDto;
+import ru.practicum.event.service.EventService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Административный поиск событий при растущем числе пользователей. Фильтр по id инициаторов и категорий
+ * не загружает справочники, поэтому время ответа не должно зависеть от users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AdminEventSearchBenchmark {
+
+    private static final int EVENTS = 20_000;
+    private static final int CATEGORIES = 20;
+
+    @Param({"10000", "100000"})
+    private int users;
+
+    private StatsServerStub stats;
+    private ConfigurableApplicationContext context;
+    private EventService eventService;
+
+    @Setup
+    public void setUp() throws Exception {
+        stats = StatsServerStub.start(Duration.ZERO);
+        context = BenchmarkApplication.start(stats);
+        new SyntheticData(context)
+                .users(users)
+                .categories(CATEGORIES)
+                .events(EVENTS, users, CATEGORIES, 0, false)
+                .alignSequences();
+        eventService = context.getBean(EventService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        stats.close();
+    }
+
+    @Benchmark
+    public List<EventFullDto> withoutFilters() {
+        return eventService.getAllByAdmin(null, null, null, null, null, 0, 10);
+    }
+
+    @Benchmark
+    public List<EventFullDto> byUsersAndCategories() {
+        return eventService.getAllByAdmin(List.of(1L, 2L, 3L), List.of("PUBLISHED"), List.of(1L, 2L),
+                null, null, 0, 10);
+    }
+}
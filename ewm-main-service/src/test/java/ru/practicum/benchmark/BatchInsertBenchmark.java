@@ -0,0 +1,99 @@
+package ru.practicum.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.User.service.UserService;
+import ru.practicum.export.ExportFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Импорт 1000 пользователей с пакетной вставкой и без нее. Счетчики statements и inserts показывают,
+ * сколько подготовленных выражений JDBC понадобилось на вставленные строки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BatchInsertBenchmark {
+
+    private static final int USERS = 1000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private StatsServerStub stats;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private Statistics statistics;
+    private long imported;
+
+    @Setup
+    public void setUp() throws Exception {
+        stats = StatsServerStub.start(Duration.ZERO);
+        context = BenchmarkApplication.start(stats,
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        userService = context.getBean(UserService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        stats.close();
+    }
+
+    @Benchmark
+    public void importUsers(JdbcCounters counters) throws IOException {
+        StringBuilder csv = new StringBuilder("name,email\n");
+        for (int i = 0; i < USERS; i++) {
+            long n = ++imported;
+            csv.append("user").append(n).append(",user").append(n).append("@import.ru\n");
+        }
+        long statements = statistics.getPrepareStatementCount();
+        long inserts = statistics.getEntityInsertCount();
+        userService.importUsers(ExportFormat.CSV,
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                OutputStream.nullOutputStream());
+        counters.statements += statistics.getPrepareStatementCount() - statements;
+        counters.inserts += statistics.getEntityInsertCount() - inserts;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class JdbcCounters {
+
+        public long statements;
+        public long inserts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            inserts = 0;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.benchmark;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.MainServiceApp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Запуск основного сервиса внутри процесса бенчмарка: отдельная база H2 в памяти, случайный порт,
+ * заглушка статистики и приглушенное логирование, чтобы вывод SQL не искажал замеры.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(StatsServerStub stats, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--ewm.stats.url=" + stats.url(),
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN",
+                "--logging.level.ru.practicum=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                "--ewm.views.sync-interval-ms=3600000",
+                "--ewm.requests.reconcile-interval-ms=3600000",
+                "--ewm.compilations.snapshot-refresh-ms=3600000"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(MainServiceApp.class)
+                .profiles("test")
+                .bannerMode(Banner.Mode.OFF)
+                .run(args.toArray(String[]::new));
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+}
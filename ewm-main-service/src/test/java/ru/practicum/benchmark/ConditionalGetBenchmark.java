@@ -0,0 +1,107 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Повторное чтение страницы из 100 событий до и после ETag и gzip: без сжатия и без If-None-Match,
+ * со сжатием, с If-None-Match. Счетчик bytes - размер тела на проводе (HttpClient не распаковывает
+ * gzip), responses - число ответов; время ответа в режиме SampleTime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConditionalGetBenchmark {
+
+    private static final int EVENTS = 1_000;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"false", "true"})
+    private boolean conditional;
+
+    private StatsServerStub stats;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+    private int expectedStatus;
+
+    @Setup
+    public void setUp() throws Exception {
+        stats = StatsServerStub.start(Duration.ZERO);
+        context = BenchmarkApplication.start(stats);
+        new SyntheticData(context)
+                .users(100)
+                .categories(10)
+                .events(EVENTS, 100, 10, 0, false)
+                .alignSequences();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://127.0.0.1:"
+                + BenchmarkApplication.port(context) + "/events?sort=EVENT_DATE&from=0&size=100")).GET();
+        if (gzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        if (conditional) {
+            HttpResponse<Void> first = client.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+            builder.header("If-None-Match", first.headers().firstValue("ETag").orElseThrow());
+        }
+        request = builder.build();
+        expectedStatus = conditional ? 304 : 200;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        stats.close();
+    }
+
+    @Benchmark
+    public int events(WireCounters counters) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("GET /events вернул " + response.statusCode());
+        }
+        counters.bytes += response.body().length;
+        counters.responses++;
+        return response.body().length;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireCounters {
+
+        public long bytes;
+        public long responses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            responses = 0;
+        }
+    }
+}
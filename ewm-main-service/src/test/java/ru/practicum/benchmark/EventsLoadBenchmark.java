@@ -0,0 +1,81 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузка на GET /events из 64 клиентских потоков при обработке запросов на виртуальных и на
+ * платформенных потоках Tomcat. Заглушка статистики отвечает с задержкой, как сетевой сервис.
+ * Пропускная способность и p99 (режим SampleTime) сравниваются между значениями virtualThreads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(64)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class EventsLoadBenchmark {
+
+    private static final int EVENTS = 1_000;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"20"})
+    private long statsLatencyMs;
+
+    private StatsServerStub stats;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        stats = StatsServerStub.start(Duration.ofMillis(statsLatencyMs));
+        context = BenchmarkApplication.start(stats, "--spring.threads.virtual.enabled=" + virtualThreads);
+        new SyntheticData(context)
+                .users(100)
+                .categories(10)
+                .events(EVENTS, 100, 10, 0, false)
+                .alignSequences();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + BenchmarkApplication.port(context)
+                + "/events?sort=EVENT_DATE&from=0&size=10")).GET().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        stats.close();
+    }
+
+    @Benchmark
+    public int events() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /events вернул " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
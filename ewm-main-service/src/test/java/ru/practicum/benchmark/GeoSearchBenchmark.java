@@ -0,0 +1,115 @@
+package ru.practicum.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.event.dto.EventShortView;
+import ru.practicum.event.model.EventSort;
+import ru.practicum.event.service.EventService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск событий в радиусе: фильтр по расстоянию, сортировка и страница выполняются в базе,
+ * поэтому время страницы определяется числом событий в круге, а не числом событий в таблице.
+ * Вариант movingCenter ищет вокруг случайной точки; счетчик planCacheMisses показывает,
+ * что новые точки не порождают новых запросов в кэше планов Hibernate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GeoSearchBenchmark {
+
+    private static final double LAT = 55.5;
+    private static final double LON = 37.5;
+
+    @Param({"10000", "100000", "1000000"})
+    private int events;
+
+    @Param({"5", "20"})
+    private double radiusKm;
+
+    private StatsServerStub stats;
+    private ConfigurableApplicationContext context;
+    private EventService eventService;
+    private Statistics statistics;
+
+    @Setup
+    public void setUp() throws Exception {
+        stats = StatsServerStub.start(Duration.ZERO);
+        context = BenchmarkApplication.start(stats);
+        new SyntheticData(context)
+                .users(100)
+                .categories(10)
+                .events(events, 100, 10, 0, false)
+                .alignSequences();
+        eventService = context.getBean(EventService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        stats.close();
+    }
+
+    @Benchmark
+    public List<EventShortView> nearestFirstPage() {
+        return eventService.findPublic(null, null, null, null, null, false, null, 0, 10, LAT, LON, radiusKm);
+    }
+
+    @Benchmark
+    public List<EventShortView> nearestDeepPage() {
+        return eventService.findPublic(null, null, null, null, null, false, null, 50, 10, LAT, LON, radiusKm);
+    }
+
+    @Benchmark
+    public List<EventShortView> nearSortedByDate() {
+        return eventService.findPublic(null, null, null, null, null, false, EventSort.EVENT_DATE, 0, 10,
+                LAT, LON, radiusKm);
+    }
+
+    @Benchmark
+    public List<EventShortView> movingCenter(PlanCacheCounters counters) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        List<EventShortView> page = eventService.findPublic(null, null, null, null, null, false, null, 0, 10,
+                55.1 + random.nextDouble() * 0.8, 37.1 + random.nextDouble() * 0.8, radiusKm);
+        counters.planCacheMisses += statistics.getQueryPlanCacheMissCount() - misses;
+        return page;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PlanCacheCounters {
+
+        public long planCacheMisses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            planCacheMisses = 0;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.event.service.EventService;
+import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.request.model.ParticipationRequestStatus;
+import ru.practicum.request.service.RequestCountService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Обработка 10 000 идентификаторов за один вызов: подсчет подтвержденных заявок по 10 000 событий
+ * и подтверждение 10 000 заявок события с лимитом 5 000 (половина подтверждается, остальные отклоняются).
+ * Перед каждым вызовом approveRequests заявки возвращаются в статус PENDING.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RequestBulkBenchmark {
+
+    private static final int IDS = 10_000;
+    private static final int PARTICIPANT_LIMIT = 5_000;
+    private static final long EVENT_ID = 1L;
+    private static final long INITIATOR_ID = 1 + EVENT_ID % IDS;
+
+    private StatsServerStub stats;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private EntityManagerFactory entityManagerFactory;
+    private EventService eventService;
+    private RequestCountService requestCountService;
+    private List<Long> eventIds;
+    private EventRequestStatusUpdateRequest confirmAll;
+
+    @Setup
+    public void setUp() throws Exception {
+        stats = StatsServerStub.start(Duration.ZERO);
+        context = BenchmarkApplication.start(stats);
+        SyntheticData data = new SyntheticData(context)
+                .users(IDS)
+                .categories(10)
+                .events(IDS, IDS, 10, PARTICIPANT_LIMIT, true)
+                .requests(EVENT_ID, 1, IDS, "PENDING");
+        for (long eventId = 2; eventId <= IDS; eventId++) {
+            data.requests(eventId, 1, 1, "CONFIRMED");
+        }
+        data.alignSequences();
+        jdbcTemplate = data.jdbc();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        eventService = context.getBean(EventService.class);
+        requestCountService = context.getBean(RequestCountService.class);
+        eventIds = LongStream.rangeClosed(1, IDS).boxed().toList();
+        confirmAll = new EventRequestStatusUpdateRequest();
+        confirmAll.setRequestIds(jdbcTemplate.queryForList(
+                "SELECT id FROM requests WHERE event_id = ? ORDER BY id", Long.class, EVENT_ID));
+        confirmAll.setStatus(ParticipationRequestStatus.CONFIRMED);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetRequests() {
+        jdbcTemplate.update("UPDATE requests SET status = 'PENDING' WHERE event_id = ?", EVENT_ID);
+        jdbcTemplate.update("UPDATE events SET confirmed_requests = 0 WHERE id = ?", EVENT_ID);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        stats.close();
+    }
+
+    @Benchmark
+    public Map<Long, Long> countConfirmed() {
+        return requestCountService.countConfirmed(eventIds);
+    }
+
+    @Benchmark
+    public Map<String, List<ParticipationRequestDto>> approveRequests() {
+        return eventService.approveRequests(INITIATOR_ID, EVENT_ID, confirmAll);
+    }
+}
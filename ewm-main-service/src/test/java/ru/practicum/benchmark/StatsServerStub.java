@@ -0,0 +1,73 @@
+package ru.practicum.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Заглушка сервиса статистики: на /stats отвечает пустым списком, запросы /hit и /hit/batch принимает
+ * без сохранения. Задержка ответа имитирует сетевой вызов к настоящему сервису.
+ */
+public final class StatsServerStub implements AutoCloseable {
+
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration latency;
+    private final AtomicLong hitRequests = new AtomicLong();
+
+    private StatsServerStub(Duration latency) throws IOException {
+        this.latency = latency;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/stats", exchange -> respond(exchange, EMPTY_LIST));
+        server.createContext("/hit", exchange -> {
+            hitRequests.incrementAndGet();
+            respond(exchange, EMPTY_OBJECT);
+        });
+        server.start();
+    }
+
+    public static StatsServerStub start(Duration latency) throws IOException {
+        return new StatsServerStub(latency);
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long hitRequests() {
+        return hitRequests.get();
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try (InputStream in = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody()) {
+            in.readAllBytes();
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            out.write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.benchmark;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.category.service.CategoryCatalog;
+import ru.practicum.event.geo.GeoCell;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Заполнение базы бенчмарка пакетными вставками JDBC. Идентификаторы задаются явно, начиная с 1,
+ * после заполнения последовательности переводятся за максимальный id.
+ */
+public final class SyntheticData {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryCatalog categoryCatalog;
+    private final Random random = new Random(42);
+
+    public SyntheticData(ApplicationContext context) {
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.categoryCatalog = context.getBean(CategoryCatalog.class);
+    }
+
+    public SyntheticData users(int count) {
+        insert("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", count,
+                i -> new Object[]{i, "user" + i, "user" + i + "@bench.ru"});
+        return this;
+    }
+
+    public SyntheticData categories(int count) {
+        insert("INSERT INTO categories (id, name) VALUES (?, ?)", count, i -> new Object[]{i, "category" + i});
+        categoryCatalog.changed();
+        return this;
+    }
+
+    /**
+     * Опубликованные события со случайными координатами в квадрате 1x1 градус вокруг (55.5, 37.5).
+     */
+    public SyntheticData events(int count, int users, int categories, int participantLimit, boolean moderation) {
+        LocalDateTime now = LocalDateTime.now();
+        insert("INSERT INTO locations (location_id, lat, lon, geocell) VALUES (?, ?, ?, ?)", count, i -> {
+            float lat = 55f + random.nextFloat();
+            float lon = 37f + random.nextFloat();
+            return new Object[]{i, lat, lon, GeoCell.encode(lat, lon)};
+        });
+        insert("INSERT INTO events (id, initiator_id, category_id, location_id, title, annotation, description, "
+                        + "state, event_date, created_on, published_on, participant_limit, paid, request_moderation) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, 'PUBLISHED', ?, ?, ?, ?, ?, ?)", count,
+                i -> new Object[]{i, 1 + i % users, 1 + i % categories, i, "Событие " + i,
+                        "Аннотация события номер " + i + " для нагрузочного теста",
+                        "Описание события номер " + i + " для нагрузочного теста",
+                        Timestamp.valueOf(now.plusDays(10).plusMinutes(i)), Timestamp.valueOf(now),
+                        Timestamp.valueOf(now), participantLimit, i % 2 == 0, moderation});
+        return this;
+    }
+
+    /**
+     * Заявки пользователей firstUser..firstUser+count-1 на событие; id заявок продолжают уже вставленные.
+     */
+    public SyntheticData requests(long eventId, int firstUser, int count, String status) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM requests", Long.class);
+        LocalDateTime now = LocalDateTime.now();
+        insert("INSERT INTO requests (id, requester_id, event_id, status, created) VALUES (?, ?, ?, ?, ?)", count,
+                i -> new Object[]{maxId + i, firstUser + i - 1, eventId, status, Timestamp.valueOf(now)});
+        return this;
+    }
+
+    public SyntheticData alignSequences() {
+        align("users_seq", "users", "id");
+        align("categories_seq", "categories", "id");
+        align("locations_seq", "locations", "location_id");
+        align("events_seq", "events", "id");
+        align("requests_seq", "requests", "id");
+        return this;
+    }
+
+    public JdbcTemplate jdbc() {
+        return jdbcTemplate;
+    }
+
+    private void align(String sequence, String table, String column) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + column + "), 0) FROM " + table, Long.class);
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1000));
+    }
+
+    private void insert(String sql, int count, IntFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= count; i++) {
+            batch.add(row.apply(i));
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.User.dto.UserDtoInput;
+import ru.practicum.User.dto.UserDtoOutput;
+import ru.practicum.User.service.UserService;
+import ru.practicum.category.dto.CategoryInputDto;
+import ru.practicum.category.dto.CategoryOutputDto;
+import ru.practicum.category.service.CategoryService;
+import ru.practicum.exception.DuplicatedDataException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание пользователя и категории при растущем размере таблиц. Дубликат определяется ограничением
+ * уникальности, поэтому время вставки и отказа не должно зависеть от rows. Создание категории
+ * дополнительно перечитывает справочник {@link ru.practicum.category.service.CategoryCatalog}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UniqueInsertBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private StatsServerStub stats;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private CategoryService categoryService;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws Exception {
+        stats = StatsServerStub.start(Duration.ZERO);
+        context = BenchmarkApplication.start(stats,
+                "--logging.level.org.hibernate.orm.jdbc.batch=OFF",
+                "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+                "--logging.level.ru.practicum.User.service=ERROR");
+        new SyntheticData(context)
+                .users(rows)
+                .categories(rows)
+                .alignSequences();
+        userService = context.getBean(UserService.class);
+        categoryService = context.getBean(CategoryService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        stats.close();
+    }
+
+    @Benchmark
+    public UserDtoOutput createUser() {
+        UserDtoInput user = new UserDtoInput();
+        user.setName("new user");
+        user.setEmail("new" + ++sequence + "@bench.ru");
+        return userService.createUser(user);
+    }
+
+    @Benchmark
+    public DuplicatedDataException createDuplicateUser() {
+        UserDtoInput user = new UserDtoInput();
+        user.setName("user1");
+        user.setEmail("user1@bench.ru");
+        try {
+            userService.createUser(user);
+        } catch (DuplicatedDataException e) {
+            return e;
+        }
+        throw new IllegalStateException("Дубликат пользователя сохранен.");
+    }
+
+    @Benchmark
+    public CategoryOutputDto createCategory() {
+        CategoryInputDto category = new CategoryInputDto();
+        category.setName("new" + ++sequence);
+        return categoryService.createCategory(category);
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * JMH-бенчмарки основного сервиса. Каждый бенчмарк поднимает сервис на H2 в памяти с заглушкой статистики
+ * и заполняет базу синтетическими данными. Запуск:
+ * {@code mvn -B -P benchmark -pl ewm-main-service -am verify -DskipTests -Dbenchmark=AdminEventSearch}
+ */
+package ru.practicum.benchmark;
@@ -0,0 +1,208 @@
+package ru.practicum.request.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.event.service.EventService;
+import ru.practicum.event.service.HighDemandSeats;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.request.model.ParticipationRequestStatus;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Параллельные заявки и подтверждения не должны выдавать мест больше, чем participantLimit,
+ * ни через условный UPDATE в базе, ни через счетчики режима высокого спроса.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:overbooking;LOCK_TIMEOUT=10000",
+        "ewm.seats.high-demand.enabled=true"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ParticipationRequestOverbookingTest {
+
+    private static final int REQUESTERS = 200;
+    private static final int LIMIT = 25;
+    private static final int THREADS = 32;
+    private static final long INITIATOR = REQUESTERS + 1;
+    private static final String CONFLICT = "CONFLICT";
+
+    @Autowired
+    private ParticipationRequestService requestService;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private HighDemandSeats highDemandSeats;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        for (long id = 1; id <= INITIATOR; id++) {
+            jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, ?, ?)",
+                    id, "user" + id, "user" + id + "@overbooking.ru");
+        }
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'overbooking')");
+        assertThat(highDemandSeats.isActive()).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void concurrentAutoConfirmedRequestsNeverExceedLimit(boolean highDemand) throws Exception {
+        long eventId = highDemand ? 2 : 1;
+        createEvent(eventId, false, highDemand);
+
+        List<String> outcomes = runConcurrently(LongStream.rangeClosed(1, REQUESTERS)
+                .mapToObj(userId -> (Callable<String>) () -> {
+                    try {
+                        return requestService.createParticipationRequest(userId, eventId, null).getStatus().name();
+                    } catch (ConflictException e) {
+                        return CONFLICT;
+                    }
+                })
+                .toList());
+        highDemandSeats.flush();
+
+        assertThat(outcomes).filteredOn(ParticipationRequestStatus.CONFIRMED.name()::equals).hasSize(LIMIT);
+        assertThat(outcomes).containsOnly(ParticipationRequestStatus.CONFIRMED.name(),
+                ParticipationRequestStatus.REJECTED.name(), CONFLICT);
+        assertSeats(eventId);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void concurrentApprovalsNeverExceedLimit(boolean highDemand) throws Exception {
+        long eventId = highDemand ? 4 : 3;
+        createEvent(eventId, true, highDemand);
+        List<Long> requestIds = new ArrayList<>();
+        for (long userId = 1; userId <= REQUESTERS; userId++) {
+            long requestId = eventId * 100_000 + userId;
+            jdbcTemplate.update("INSERT INTO requests (id, requester_id, event_id, status, created) "
+                            + "VALUES (?, ?, ?, 'PENDING', ?)",
+                    requestId, userId, eventId, Timestamp.valueOf(LocalDateTime.now()));
+            requestIds.add(requestId);
+        }
+
+        List<Callable<Integer>> approvals = new ArrayList<>();
+        for (int from = 0; from < REQUESTERS; from += 10) {
+            EventRequestStatusUpdateRequest update = new EventRequestStatusUpdateRequest();
+            update.setRequestIds(requestIds.subList(from, from + 10));
+            update.setStatus(ParticipationRequestStatus.CONFIRMED);
+            approvals.add(() -> {
+                try {
+                    return eventService.approveRequests(INITIATOR, eventId, update)
+                            .getOrDefault("confirmedRequests", List.of()).size();
+                } catch (ConflictException e) {
+                    return 0;
+                }
+            });
+        }
+        List<Integer> confirmed = runConcurrently(approvals);
+        highDemandSeats.flush();
+
+        assertThat(confirmed.stream().mapToInt(Integer::intValue).sum()).isEqualTo(LIMIT);
+        assertSeats(eventId);
+    }
+
+    @Test
+    void lostLeaseFlushesCountersAndReacquiredLeaseRestoresThem() {
+        long eventId = 5;
+        createEvent(eventId, false, true);
+        List<Long> requestIds = new ArrayList<>();
+        for (long userId = 1; userId <= LIMIT; userId++) {
+            requestIds.add(requestService.createParticipationRequest(userId, eventId, null).getId());
+        }
+
+        jdbcTemplate.update("UPDATE service_leases SET owner = 'other', expires_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusMinutes(1)));
+        highDemandSeats.renewLease();
+        assertThat(highDemandSeats.isActive()).isFalse();
+        assertSeats(eventId);
+
+        requestService.cancelParticipationRequest(1L, requestIds.getFirst());
+        assertThat(jdbcTemplate.queryForObject("SELECT confirmed_requests FROM events WHERE id = ?",
+                Integer.class, eventId)).isEqualTo(LIMIT - 1);
+
+        jdbcTemplate.update("DELETE FROM service_leases");
+        highDemandSeats.renewLease();
+        assertThat(highDemandSeats.isActive()).isTrue();
+        assertThat(requestService.createParticipationRequest(LIMIT + 1L, eventId, null).getStatus())
+                .isEqualTo(ParticipationRequestStatus.CONFIRMED);
+        assertThat(requestService.createParticipationRequest(LIMIT + 2L, eventId, null).getStatus())
+                .isEqualTo(ParticipationRequestStatus.REJECTED);
+        highDemandSeats.flush();
+        assertSeats(eventId);
+    }
+
+    @Test
+    void concurrentRetriesWithIdempotencyKeyReturnOneRequest() throws Exception {
+        long eventId = 6;
+        createEvent(eventId, false, false);
+
+        List<Long> requestIds = runConcurrently(LongStream.range(0, THREADS)
+                .mapToObj(attempt -> (Callable<Long>) () ->
+                        requestService.createParticipationRequest(1L, eventId, "retry-key").getId())
+                .toList());
+
+        assertThat(requestIds).doesNotContainNull().containsOnly(requestIds.getFirst());
+        assertThat(jdbcTemplate.queryForObject("SELECT confirmed_requests FROM events WHERE id = ?",
+                Integer.class, eventId)).isEqualTo(1);
+    }
+
+    private void createEvent(long eventId, boolean moderation, boolean highDemand) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO locations (location_id, lat, lon) VALUES (?, 55.75, 37.62)", eventId);
+        jdbcTemplate.update("INSERT INTO events (id, initiator_id, category_id, location_id, title, annotation, "
+                        + "description, state, event_date, created_on, published_on, participant_limit, paid, "
+                        + "request_moderation, high_demand) VALUES (?, ?, 1, ?, 'Overbooking', "
+                        + "'Overbooking stress test', 'Overbooking stress test', 'PUBLISHED', ?, ?, ?, ?, false, ?, ?)",
+                eventId, INITIATOR, eventId, Timestamp.valueOf(now.plusDays(1)), Timestamp.valueOf(now),
+                Timestamp.valueOf(now), LIMIT, moderation, highDemand);
+    }
+
+    private void assertSeats(long eventId) {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM requests WHERE event_id = ? AND status = ?",
+                Integer.class, eventId, ParticipationRequestStatus.CONFIRMED.name())).isEqualTo(LIMIT);
+        assertThat(jdbcTemplate.queryForObject("SELECT confirmed_requests FROM events WHERE id = ?",
+                Integer.class, eventId)).isEqualTo(LIMIT);
+        assertThat(jdbcTemplate.queryForObject("SELECT available FROM events WHERE id = ?",
+                Boolean.class, eventId)).isFalse();
+    }
+
+    private <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
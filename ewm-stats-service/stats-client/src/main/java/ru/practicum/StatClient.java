@@ -33,6 +33,10 @@ public class StatClient extends BaseClient {
         return post("/hit", statDtoInput);
     }
 
+    public ResponseEntity<Object> createStats(List<StatDtoInput> statDtoInputs) {
+        return post("/hit/batch", statDtoInputs);
+    }
+
     public ResponseEntity<Object> getStats(String start,
                                            String end,
                                            @Nullable List<String> uris,
@@ -39,6 +39,14 @@ public class StatController {
         return createdStat;
     }
 
+    @PostMapping("/hit/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void createStats(@RequestBody List<@Valid StatDtoInput> statDtoInputs) {
+        log.info("Получен запрос на создание {} записей статистики", statDtoInputs.size());
+
+        statService.createStats(statDtoInputs);
+    }
+
     @GetMapping("/stats")
     @ResponseStatus(HttpStatus.OK)
     public List<StatDtoOutput> getStats(
@@ -10,6 +10,8 @@ public interface StatService {
 
     StatDtoInput createStat(StatDtoInput statDtoInput);
 
+    void createStats(List<StatDtoInput> statDtoInputs);
+
     List<StatDtoOutput> getStats(LocalDateTime start,
                                  LocalDateTime end,
                                  List<String> uris,
@@ -29,6 +29,12 @@ public class StatServiceImpl implements StatService {
         return StatMapper.INSTANCE.toStatDtoInput(stat);
     }
 
+    @Override
+    public void createStats(List<StatDtoInput> statDtoInputs) {
+        statRepository.saveAll(statDtoInputs.stream().map(StatMapper.INSTANCE::toStat).toList());
+        log.info("В БД добавлено {} элементов статистики.", statDtoInputs.size());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<StatDtoOutput> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {